@@ -0,0 +1,487 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * This class implements an AVL tree of integers whose nodes are stored as
+ * slots in parallel primitive arrays rather than as AvlNode objects: each
+ * node is an index, and its key, left child, right child and height are kept
+ * in the keys, left, right and height arrays at that index. Index 0 is
+ * reserved as the empty node, with height 0, so the same null-free height
+ * lookups as AvlTree can be used.
+ *
+ * Removing this per-node object header and the pointers between objects
+ * lowers memory use and garbage collection work for very large trees, and
+ * keeps neighbouring nodes close together in memory. Slots freed by delete
+ * are kept on a free list, threaded through the left array, and reused by
+ * later inserts and builds.
+ *
+ * Created as part of an assignment for Foundations of Algorithms, a graduate-
+ * level course at Johns Hopkins University.
+ *
+ * @author Joseph Scheidt
+ * @version Programming Assignment 1
+ */
+public class ArrayAvlTree {
+    
+    //index used for an empty child
+    static final int NIL = 0;
+    
+    //initial number of slots, including the reserved empty slot
+    private static final int INITIAL_CAPACITY = 16;
+    
+    //parallel node storage
+    int[] keys;
+    int[] left;
+    int[] right;
+    int[] height;
+    
+    //index of root node
+    int root;
+    
+    //number of tree nodes
+    int size;
+    
+    //next slot never used by any node
+    private int next;
+    
+    //first slot on the free list, or NIL if the list is empty
+    private int freeList;
+    
+    /**
+     * A constructor for the class. Initializes an empty tree.
+     */
+    public ArrayAvlTree() {
+        
+        this(INITIAL_CAPACITY);
+        
+    }
+    
+    /* A private constructor to initialize an empty tree with room for a
+     * given number of slots before the arrays need to grow.
+     */
+    private ArrayAvlTree(int capacity) {
+        
+        keys = new int[capacity];
+        left = new int[capacity];
+        right = new int[capacity];
+        height = new int[capacity];
+        
+        clear();
+        
+    }
+    
+    /**
+     * A constructor for the class. Takes a sorted integer array and builds
+     * a complete AVL tree in O(n) time, using divide and conquer and
+     * recursion on smaller arrays to assign each value to a slot.
+     *
+     * @param data the integer array to transform into an AVL tree
+     */
+    public ArrayAvlTree(int[] data) {
+        
+        this(data.length + 1);
+        
+        if(data.length > 0) {
+            root = buildTree(data, 0, data.length - 1);
+        }
+        
+    }
+    
+    /**
+     * A method to remove every node from the tree. All slots become available
+     * again, without shrinking the arrays.
+     */
+    public void clear() {
+        
+        root = NIL;
+        size = 0;
+        next = 1;
+        freeList = NIL;
+        
+    }
+    
+    /* A helper function to take a slot for a new node, from the free list if
+     * possible and otherwise from the unused end of the arrays, growing them
+     * if they are full.
+     */
+    private int allocNode(int key) {
+        
+        int node;
+        
+        if(freeList != NIL) {
+            
+            //reuse most recently freed slot
+            node = freeList;
+            freeList = left[node];
+            
+        } else {
+            
+            //grow arrays if no unused slot remains
+            if(next == keys.length) {
+                int capacity = keys.length * 2;
+                keys = Arrays.copyOf(keys, capacity);
+                left = Arrays.copyOf(left, capacity);
+                right = Arrays.copyOf(right, capacity);
+                height = Arrays.copyOf(height, capacity);
+            }
+            
+            node = next;
+            next++;
+            
+        }
+        
+        //initialize as a leaf
+        keys[node] = key;
+        left[node] = NIL;
+        right[node] = NIL;
+        height[node] = 1;
+        size++;
+        
+        return node;
+        
+    }
+    
+    /* A helper function to return a node's slot to the free list.
+     */
+    private void freeNode(int node) {
+        
+        left[node] = freeList;
+        freeList = node;
+        size--;
+        
+    }
+    
+    /* A helper function to recalculate a node's height from its children.
+     */
+    private void updateHeight(int node) {
+        
+        height[node] = Math.max(height[left[node]], height[right[node]]) + 1;
+        
+    }
+    
+    /* A helper function to return the balance of a node, as in AvlTree.
+     */
+    private int balance(int node) {
+        
+        return height[right[node]] - height[left[node]];
+        
+    }
+    
+    /* A helper function, called recursively, to build an AVL tree from an
+     * array of integers. It takes the middle value of the sorted array,
+     * assigns it to a slot, then calls itself on the left half of the array
+     * and the right half of the array until each value is assigned a slot.
+     */
+    private int buildTree(int[] data, int beg, int end) {
+        
+        //find middle of subarray
+        int middle = beg + (end - beg) / 2;
+        
+        //create node from middle value
+        int node = allocNode(data[middle]);
+        
+        //assign remaining values to left and right subtrees
+        //children are built before storing, as building may grow the arrays
+        if(beg < middle) {
+            int child = buildTree(data, beg, middle - 1);
+            left[node] = child;
+        }
+        
+        if(middle < end) {
+            int child = buildTree(data, middle + 1, end);
+            right[node] = child;
+        }
+        
+        //calculate node's height
+        updateHeight(node);
+        
+        return node;
+        
+    }
+    
+    /**
+     * A simple function to return the maximum value of a tree.
+     *
+     * @return the maximum value of a tree
+     * @throws NoSuchElementException if the tree is empty
+     */
+    public int max() {
+        
+        //slot 0 is unused, so an empty tree has no key to return
+        if(root == NIL) {
+            throw new NoSuchElementException();
+        }
+        
+        int rightMost = root;
+        
+        while(right[rightMost] != NIL) {
+            rightMost = right[rightMost];
+        }
+        
+        return keys[rightMost];
+        
+    }
+    
+    /**
+     * A simple function to return the minimum value of a tree.
+     *
+     * @return the minimum value of a tree
+     * @throws NoSuchElementException if the tree is empty
+     */
+    public int min() {
+        
+        //slot 0 is unused, so an empty tree has no key to return
+        if(root == NIL) {
+            throw new NoSuchElementException();
+        }
+        
+        int leftMost = root;
+        
+        while(left[leftMost] != NIL) {
+            leftMost = left[leftMost];
+        }
+        
+        return keys[leftMost];
+        
+    }
+    
+    /**
+     * A method to turn the tree into a sorted array of integers, in the
+     * order of left subtree, current node, right subtree. Since each node is
+     * visited once, this takes O(n) time.
+     *
+     * @return a sorted integer array
+     */
+    public int[] treeToArray() {
+        
+        int[] returnArray = new int[size];
+        
+        sortTree(root, returnArray, 0);
+        
+        return returnArray;
+        
+    }
+    
+    /* A helper function to recursively store nodes of the tree in the array,
+     * starting at the given index. Returns the index following the last
+     * value stored.
+     */
+    private int sortTree(int node, int[] treeArray, int index) {
+        
+        if(node == NIL) {
+            return index;
+        }
+        
+        index = sortTree(left[node], treeArray, index);
+        treeArray[index] = keys[node];
+        
+        return sortTree(right[node], treeArray, index + 1);
+        
+    }
+    
+    /**
+     * A method to insert a key value into the tree, rebalancing the path of
+     * the insert as necessary.
+     *
+     * @param key The key value to insert
+     */
+    public void insert(int key) {
+        
+        root = insert(root, key);
+        
+    }
+    
+    /* A helper function, called recursively, to insert a key below a node.
+     * After the new node is created, the function bubbles back up the path
+     * of the insert, rotating nodes as in AvlTree.insert.
+     */
+    private int insert(int node, int key) {
+        
+        //create new node if empty, otherwise send to right or left child,
+        //storing the child only after the insert as it may grow the arrays
+        if(node == NIL) {
+            return allocNode(key);
+        } else if(keys[node] > key) {
+            int child = insert(left[node], key);
+            left[node] = child;
+        } else if(keys[node] < key) {
+            int child = insert(right[node], key);
+            right[node] = child;
+        } else {
+            return node;
+        }
+        
+        //update height for all parent nodes
+        updateHeight(node);
+        
+        int balance = balance(node);
+        
+        //two cases if tree is left heavy
+        if(balance < -1 && key < keys[left[node]]) {
+            return rotateRight(node);
+        } else if(balance < -1 && key > keys[left[node]]) {
+            left[node] = rotateLeft(left[node]);
+            return rotateRight(node);
+        
+        //two cases if tree is right heavy
+        } else if(balance > 1 && key > keys[right[node]]) {
+            return rotateLeft(node);
+        } else if(balance > 1 && key < keys[right[node]]) {
+            right[node] = rotateRight(right[node]);
+            return rotateLeft(node);
+        }
+        
+        return node;
+        
+    }
+    
+    /**
+     * A method to delete a key value from the tree, rebalancing the path of
+     * the delete as necessary. The slot of the removed node is put on the
+     * free list.
+     *
+     * @param key The key value to delete
+     */
+    public void delete(int key) {
+        
+        root = delete(root, key);
+        
+    }
+    
+    /* A helper function, called recursively, to delete a key below a node.
+     * A node with two children takes the key of its successor, which is
+     * then deleted from the right subtree instead.
+     */
+    private int delete(int node, int key) {
+        
+        if(node == NIL) {
+            return NIL;
+        } else if(keys[node] > key) {
+            int child = delete(left[node], key);
+            left[node] = child;
+        } else if(keys[node] < key) {
+            int child = delete(right[node], key);
+            right[node] = child;
+        } else if(left[node] == NIL || right[node] == NIL) {
+            
+            //at most one child takes the node's place
+            int child = left[node] == NIL ? right[node] : left[node];
+            freeNode(node);
+            return child;
+            
+        } else {
+            
+            //replace key with successor, then remove successor
+            int successor = right[node];
+            
+            while(left[successor] != NIL) {
+                successor = left[successor];
+            }
+            
+            keys[node] = keys[successor];
+            int child = delete(right[node], keys[successor]);
+            right[node] = child;
+            
+        }
+        
+        return rebalance(node);
+        
+    }
+    
+    /* A helper function to restore the balance of a node after a delete
+     * below it, with a single or double rotation toward the lighter side.
+     */
+    private int rebalance(int node) {
+        
+        updateHeight(node);
+        
+        int balance = balance(node);
+        
+        if(balance < -1) {
+            if(balance(left[node]) > 0) {
+                left[node] = rotateLeft(left[node]);
+            }
+            return rotateRight(node);
+        } else if(balance > 1) {
+            if(balance(right[node]) < 0) {
+                right[node] = rotateRight(right[node]);
+            }
+            return rotateLeft(node);
+        }
+        
+        return node;
+        
+    }
+    
+    /* A helper function for rotating nodes to the left.
+     */
+    private int rotateLeft(int node) {
+        
+        int newParent = right[node];
+        
+        //rotate nodes
+        right[node] = left[newParent];
+        left[newParent] = node;
+        
+        //update heights
+        updateHeight(node);
+        updateHeight(newParent);
+        
+        return newParent;
+        
+    }
+    
+    /* A helper function for rotating nodes to the right.
+     */
+    private int rotateRight(int node) {
+        
+        int newParent = left[node];
+        
+        //rotate nodes
+        left[node] = right[newParent];
+        right[newParent] = node;
+        
+        //update heights
+        updateHeight(node);
+        updateHeight(newParent);
+        
+        return newParent;
+        
+    }
+    
+    /**
+     * A method for merging two trees of size m and n in O(m+n) time. Both
+     * trees are sorted into arrays and merged, keeping one copy of repeated
+     * values, and the result is rebuilt in the slots of the larger tree,
+     * which is returned. The smaller tree is not modified.
+     *
+     * @param tree1 The first tree to be merged
+     * @param tree2 The second tree to be merged
+     * @return The merged tree
+     */
+    public static ArrayAvlTree mergeTrees(ArrayAvlTree tree1, ArrayAvlTree tree2) {
+        
+        ArrayAvlTree larger = tree1.size < tree2.size ? tree2 : tree1;
+        
+        //sort both trees into arrays and merge them
+        int[] tree1Array = tree1.treeToArray();
+        int[] tree2Array = tree2.treeToArray();
+        
+        int[] mergeArray = new int[tree1Array.length + tree2Array.length];
+        int length = AvlTree.mergeSortedArrays(tree1Array, tree1Array.length,
+                                               tree2Array, tree2Array.length,
+                                               mergeArray, null);
+        
+        //rebuild in the larger tree's slots
+        larger.clear();
+        
+        if(length > 0) {
+            larger.root = larger.buildTree(mergeArray, 0, length - 1);
+        }
+        
+        return larger;
+        
+    }
+
+
+}
@@ -0,0 +1,78 @@
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class implements the divide and conquer construction of an AVL tree
+ * from a sorted array as a fork/join task. The middle value of the subarray
+ * becomes the subtree's root, and the halves on either side are built as
+ * independent tasks, since they share no nodes. Small subarrays are built
+ * sequentially with AvlTree.buildTree.
+ *
+ * Created as part of an assignment for Foundations of Algorithms, a graduate-
+ * level course at Johns Hopkins University.
+ *
+ * @author Joseph Scheidt
+ * @version Programming Assignment 1
+ */
+class AvlBuildTask extends RecursiveTask<AvlNode> {
+    
+    //version of the serialized form inherited from ForkJoinTask
+    private static final long serialVersionUID = 1L;
+    
+    //subarrays with fewer values than this are built without forking
+    static final int SEQUENTIAL_SIZE = 8192;
+    
+    //tree whose nodes are being built
+    private final AvlTree tree;
+    
+    //sorted values and the subarray to build from
+    private final int[] data;
+    private final int beg;
+    private final int end;
+    
+    /**
+     * A constructor for the class.
+     *
+     * @param t the tree whose nodes are being built
+     * @param d the sorted integer array
+     * @param b the index of the first value of the subarray
+     * @param e the index of the last value of the subarray
+     */
+    AvlBuildTask(AvlTree t, int[] d, int b, int e) {
+        
+        tree = t;
+        data = d;
+        beg = b;
+        end = e;
+        
+    }
+    
+    @Override
+    protected AvlNode compute() {
+        
+        if(end - beg < SEQUENTIAL_SIZE) {
+            return tree.buildTree(data, beg, end);
+        }
+        
+        //find middle of subarray
+        int middle = beg + (end - beg) / 2;
+        
+        //build left half in a forked task while building right half here
+        AvlBuildTask leftTask = new AvlBuildTask(tree, data, beg, middle - 1);
+        leftTask.fork();
+        
+        AvlNode right = new AvlBuildTask(tree, data, middle + 1, end).compute();
+        
+        AvlNode node = tree.newNode(data[middle]);
+        node.left = leftTask.join();
+        node.right = right;
+        
+        //calculate node's height and subtree size
+        node.height = Math.max(AvlTree.height(node.left), AvlTree.height(node.right)) + 1;
+        node.size = AvlTree.size(node.left) + AvlTree.size(node.right) + 1;
+        
+        return node;
+        
+    }
+
+
+}
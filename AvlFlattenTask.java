@@ -0,0 +1,73 @@
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class implements the sorting of an AVL subtree into an array as a
+ * fork/join task. The position of every key in the output is known from
+ * subtree sizes: a node's key goes right after the keys of its left
+ * subtree. So the node's key is stored directly, and the left and right
+ * subtrees are stored by independent tasks into disjoint slices of the
+ * array. Small subtrees are stored sequentially with AvlTree.sortTree.
+ *
+ * Created as part of an assignment for Foundations of Algorithms, a graduate-
+ * level course at Johns Hopkins University.
+ *
+ * @author Joseph Scheidt
+ * @version Programming Assignment 1
+ */
+class AvlFlattenTask extends RecursiveAction {
+    
+    //version of the serialized form inherited from ForkJoinTask
+    private static final long serialVersionUID = 1L;
+    
+    //subtrees with fewer nodes than this are stored without forking
+    static final int SEQUENTIAL_SIZE = 8192;
+    
+    //tree being sorted
+    private final AvlTree tree;
+    
+    //subtree to store, and where its smallest key goes in the array
+    private final AvlNode node;
+    private final int[] treeArray;
+    private final int offset;
+    
+    /**
+     * A constructor for the class.
+     *
+     * @param t the tree being sorted
+     * @param n the root of the subtree to store
+     * @param a the array to store keys in
+     * @param o the index of the subtree's smallest key in the array
+     */
+    AvlFlattenTask(AvlTree t, AvlNode n, int[] a, int o) {
+        
+        tree = t;
+        node = n;
+        treeArray = a;
+        offset = o;
+        
+    }
+    
+    @Override
+    protected void compute() {
+        
+        if(AvlTree.size(node) < SEQUENTIAL_SIZE) {
+            tree.sortTree(node, treeArray, offset);
+            return;
+        }
+        
+        //node's key follows every key of its left subtree
+        int nodeIndex = offset + AvlTree.size(node.left);
+        treeArray[nodeIndex] = node.key;
+        
+        //store left subtree in a forked task while storing right subtree here
+        AvlFlattenTask leftTask = new AvlFlattenTask(tree, node.left, treeArray, offset);
+        leftTask.fork();
+        
+        new AvlFlattenTask(tree, node.right, treeArray, nodeIndex + 1).compute();
+        
+        leftTask.join();
+        
+    }
+
+
+}
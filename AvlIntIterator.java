@@ -0,0 +1,136 @@
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * This class implements an iterator over the key values of an AVL tree in
+ * sorted order, optionally limited to the keys in a range. The path to the
+ * next node is kept on an explicit stack, so no recursion is used and no
+ * object is allocated per key. Subtrees outside the range are never entered,
+ * so iterating k keys of a range takes O(lg n + k) time. An iterator may be
+ * reset to the start of any tree or range and reused, keeping its stack when
+ * it is large enough.
+ *
+ * Created as part of an assignment for Foundations of Algorithms, a graduate-
+ * level course at Johns Hopkins University.
+ *
+ * @author Joseph Scheidt
+ * @version Programming Assignment 1
+ */
+public class AvlIntIterator implements PrimitiveIterator.OfInt {
+    
+    //nodes whose keys and right subtrees are still to be visited
+    private AvlNode[] stack;
+    private int top;
+    
+    //largest key value to return
+    private int hi;
+    
+    /**
+     * A constructor for the class.
+     *
+     * @param tree the tree whose key values are to be iterated
+     */
+    public AvlIntIterator(AvlTree tree) {
+        
+        stack = new AvlNode[0];
+        reset(tree);
+        
+    }
+    
+    /**
+     * A method to restart the iterator at the smallest key value of a tree.
+     *
+     * @param tree the tree whose key values are to be iterated
+     */
+    public void reset(AvlTree tree) {
+        
+        reset(tree, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        
+    }
+    
+    /**
+     * A method to restart the iterator at the smallest key value of a tree
+     * that is at least lo, stopping after the largest that is at most hi.
+     * Any keys the tree holds back by deferred rebalancing are added first.
+     *
+     * @param tree the tree whose key values are to be iterated
+     * @param lo the smallest key value to return
+     * @param hi the largest key value to return
+     */
+    public void reset(AvlTree tree, int lo, int hi) {
+        
+        //add any keys held back by deferred rebalancing
+        tree.flushPending();
+        
+        //grow stack only if the tree is taller than any seen before
+        if(stack.length < AvlTree.height(tree.root)) {
+            stack = new AvlNode[AvlTree.height(tree.root)];
+        }
+        
+        //clear any path left from an unfinished iteration
+        while(top > 0) {
+            stack[--top] = null;
+        }
+        
+        this.hi = hi;
+        
+        //save path to smallest key not below lo, skipping smaller subtrees
+        AvlNode node = tree.root;
+        
+        while(node != null) {
+            if(node.key < lo) {
+                node = node.right;
+            } else {
+                stack[top++] = node;
+                node = node.left;
+            }
+        }
+        
+    }
+    
+    /* A helper function to save the path from a node down to the leftmost
+     * node of its subtree.
+     */
+    private void pushLeft(AvlNode node) {
+        
+        while(node != null) {
+            stack[top++] = node;
+            node = node.left;
+        }
+        
+    }
+    
+    @Override
+    public boolean hasNext() {
+        
+        return top > 0 && stack[top - 1].key <= hi;
+        
+    }
+    
+    @Override
+    public int nextInt() {
+        
+        return nextNode().key;
+        
+    }
+    
+    /* A helper function to return the next node itself, so that callers in
+     * this package can also read its count.
+     */
+    AvlNode nextNode() {
+        
+        if(!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        
+        //take next node, then continue with its right subtree
+        AvlNode node = stack[--top];
+        stack[top] = null;
+        pushLeft(node.right);
+        
+        return node;
+        
+    }
+
+
+}
@@ -0,0 +1,513 @@
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class implements a command-line workload driver for the AVL tree. It
+ * runs a weighted mix of inserts, lookups, range scans, merges and bulk
+ * builds against a single tree, drawing keys from a uniform, Zipfian,
+ * sequential or interleaved distribution, at a target rate of operations per
+ * second. The latency of every operation is recorded in a histogram per
+ * operation type, and the bytes allocated by each operation are counted.
+ *
+ * Operations are paced open-loop: each has an intended start time fixed by
+ * the target rate, and its latency is measured from that time rather than
+ * from when it actually began. An operation held up behind a slow one is
+ * charged for the wait, so tail latencies are not hidden by the driver
+ * falling behind.
+ *
+ * Options are given as name=value arguments:
+ *
+ * ops - number of measured operations per distribution (200000)
+ * warmup - number of unmeasured operations run first (50000)
+ * rate - target operations per second, or 0 to run unpaced (0)
+ * size - number of keys loaded into the tree before the run (100000)
+ * keys - size of the key space drawn from, at least 2 (1048576)
+ * mix - weights of each operation, none negative and not all zero
+ *       (insert:40,lookup:40,range:10,merge:5,build:5)
+ * dist - uniform, zipfian, sequential, interleaved or all (all)
+ * seed - seed of the random number generator (1)
+ * out - file to write the results to, rather than the console
+ *
+ * Results are printed as comma separated values, one line per distribution
+ * and operation type.
+ *
+ * Created as part of an assignment for Foundations of Algorithms, a graduate-
+ * level course at Johns Hopkins University.
+ *
+ * @author Joseph Scheidt
+ * @version Programming Assignment 1
+ */
+public class AvlLoadGenerator {
+    
+    //operation types, in the order their weights are given
+    private static final String[] OPERATIONS = {"insert", "lookup", "range", "merge", "build"};
+    private static final int INSERT = 0;
+    private static final int LOOKUP = 1;
+    private static final int RANGE = 2;
+    private static final int MERGE = 3;
+    private static final int BUILD = 4;
+    
+    //key distributions
+    private static final String[] DISTRIBUTIONS = {"uniform", "zipfian", "sequential", "interleaved"};
+    
+    //width of the key range copied by a range scan
+    private static final int RANGE_WIDTH = 128;
+    
+    //number of keys drawn for the tree merged in by a merge
+    private static final int MERGE_SIZE = 256;
+    
+    //number of keys in the array built by a bulk build
+    private static final int BUILD_SIZE = 4096;
+    
+    //skew of the Zipfian distribution
+    private static final double ZIPF_THETA = 0.99;
+    
+    //terms of the Zipfian normalizer summed exactly, the rest estimated
+    private static final int ZIPF_EXACT_TERMS = 1 << 20;
+    
+    //waits longer than this are parked rather than spun
+    private static final long PARK_THRESHOLD_NANOS = 100000;
+    
+    //results are folded in here so the JIT cannot discard the work
+    static volatile long sink;
+    
+    //thread bean, looked up once since the lookup itself allocates
+    private static final ThreadMXBean THREAD_BEAN = ManagementFactory.getThreadMXBean();
+    
+    //settings of the run
+    private final int ops;
+    private final int warmup;
+    private final int rate;
+    private final int size;
+    private final int keySpace;
+    private final int[] weights;
+    private final Random random;
+    
+    //distribution keys are drawn from, and its state
+    private int distribution;
+    private long sequence;
+    private double zipfZeta;  //0 until the first Zipfian draw
+    private double zipfEta;
+    
+    //tree under load, and buffers prepared for the next operation
+    private AvlTree tree;
+    private final int[] rangeBuffer = new int[RANGE_WIDTH + 1];
+    private final int[] mergeBuffer = new int[MERGE_SIZE];
+    private int[] buildArray;
+    
+    //latency and allocation of each operation type
+    private final LatencyHistogram[] histograms = new LatencyHistogram[OPERATIONS.length];
+    private final long[] allocated = new long[OPERATIONS.length];
+    
+    /**
+     * A constructor for the class.
+     *
+     * @param ops the number of measured operations per distribution
+     * @param warmup the number of unmeasured operations run first
+     * @param rate the target operations per second, or 0 to run unpaced
+     * @param size the number of keys loaded into the tree before the run
+     * @param keySpace the size of the key space drawn from
+     * @param weights the weight of each operation type
+     * @param seed the seed of the random number generator
+     */
+    public AvlLoadGenerator(int ops, int warmup, int rate, int size, int keySpace,
+                            int[] weights, long seed) {
+        
+        this.ops = ops;
+        this.warmup = warmup;
+        this.rate = rate;
+        this.size = size;
+        this.keySpace = keySpace;
+        this.weights = weights;
+        random = new Random(seed);
+        
+        for(int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+        
+    }
+    
+    /* A helper function to return the bytes allocated so far by the current
+     * thread, or -1 if the JVM does not report it.
+     */
+    private static long allocatedBytes() {
+        
+        if(THREAD_BEAN instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) THREAD_BEAN).getCurrentThreadAllocatedBytes();
+        }
+        
+        return -1;
+        
+    }
+    
+    /* A helper function to compute the normalizing constants of the Zipfian
+     * distribution. The first ZIPF_EXACT_TERMS terms of the zeta sum are
+     * added one by one, and the rest are estimated by the integral of the
+     * terms plus an end correction, which is accurate to well below one
+     * part in a million and keeps large key spaces from stalling the run.
+     */
+    private void computeZipfConstants() {
+        
+        double zeta2 = 1 + Math.pow(0.5, ZIPF_THETA);
+        int exact = Math.min(keySpace, ZIPF_EXACT_TERMS);
+        
+        zipfZeta = 0;
+        
+        for(int i = 1; i <= exact; i++) {
+            zipfZeta += 1 / Math.pow(i, ZIPF_THETA);
+        }
+        
+        if(keySpace > exact) {
+            zipfZeta += (Math.pow(keySpace, 1 - ZIPF_THETA) - Math.pow(exact, 1 - ZIPF_THETA))
+                        / (1 - ZIPF_THETA)
+                        + (Math.pow(keySpace, -ZIPF_THETA) - Math.pow(exact, -ZIPF_THETA)) / 2;
+        }
+        
+        zipfEta = (1 - Math.pow(2.0 / keySpace, 1 - ZIPF_THETA)) / (1 - zeta2 / zipfZeta);
+        
+    }
+    
+    /* A helper function to draw the next key from the current distribution.
+     */
+    private int nextKey() {
+        
+        if(distribution == 0) {
+            
+            return random.nextInt(keySpace);
+            
+        } else if(distribution == 1) {
+            
+            //normalizing constants, computed on the first draw only
+            if(zipfZeta == 0) {
+                computeZipfConstants();
+            }
+            
+            //rank drawn by inverting the Zipfian distribution, as YCSB does
+            double u = random.nextDouble();
+            double uz = u * zipfZeta;
+            
+            if(uz < 1) {
+                return 0;
+            } else if(uz < 1 + Math.pow(0.5, ZIPF_THETA)) {
+                return 1;
+            }
+            
+            long rank = (long) (keySpace * Math.pow(zipfEta * u - zipfEta + 1, 1 / (1 - ZIPF_THETA)));
+            
+            return (int) Math.min(rank, keySpace - 1);
+            
+        } else if(distribution == 2) {
+            
+            return (int) (sequence++ % keySpace);
+            
+        }
+        
+        //two ascending streams, one from each half of the key space
+        long step = sequence++;
+        long offset = step / 2 % (keySpace / 2);
+        
+        return (int) (step % 2 == 0 ? offset : keySpace / 2 + offset);
+        
+    }
+    
+    /* A helper function to fill an array with keys from the current
+     * distribution, sort them and drop repeated keys. Returns the number of
+     * distinct keys.
+     */
+    private int sortedKeys(int[] array, int length) {
+        
+        for(int i = 0; i < length; i++) {
+            array[i] = nextKey();
+        }
+        
+        Arrays.sort(array, 0, length);
+        
+        int distinct = 0;
+        
+        for(int i = 0; i < length; i++) {
+            if(distinct == 0 || array[distinct - 1] != array[i]) {
+                array[distinct++] = array[i];
+            }
+        }
+        
+        return distinct;
+        
+    }
+    
+    /* A helper function to pick the next operation type by weight.
+     */
+    private int nextOperation(int totalWeight) {
+        
+        int pick = random.nextInt(totalWeight);
+        int operation = 0;
+        
+        while(pick >= weights[operation]) {
+            pick -= weights[operation++];
+        }
+        
+        return operation;
+        
+    }
+    
+    /* A helper function to run a number of operations, recording their
+     * latencies and allocations if measured.
+     */
+    private void runOperations(int count, boolean measured) {
+        
+        int totalWeight = 0;
+        
+        for(int i = 0; i < weights.length; i++) {
+            totalWeight += weights[i];
+        }
+        
+        double nanosPerOp = rate > 0 ? 1e9 / rate : 0;
+        long start = System.nanoTime();
+        
+        for(int i = 0; i < count; i++) {
+            
+            //prepare arguments outside the timed part
+            int operation = nextOperation(totalWeight);
+            int key = nextKey();
+            AvlTree batch = null;
+            
+            if(operation == MERGE) {
+                batch = new AvlTree(mergeBuffer, sortedKeys(mergeBuffer, MERGE_SIZE), null);
+            }
+            
+            //wait for the intended start time, parking through long waits and
+            //yielding while spinning so compiler and collector threads can run
+            long intended = start + (long) (i * nanosPerOp);
+            long wait = intended - System.nanoTime();
+            
+            if(wait > PARK_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(wait - PARK_THRESHOLD_NANOS);
+            }
+            
+            while(System.nanoTime() < intended) {
+                Thread.yield();
+            }
+            
+            long allocatedStart = allocatedBytes();
+            long opStart = rate > 0 ? intended : System.nanoTime();
+            
+            if(operation == INSERT) {
+                tree.insert(key);
+            } else if(operation == LOOKUP) {
+                sink += tree.contains(key) ? 1 : 0;
+            } else if(operation == RANGE) {
+                //range ends at the largest key rather than wrapping past it
+                int hi = key > Integer.MAX_VALUE - RANGE_WIDTH ? Integer.MAX_VALUE : key + RANGE_WIDTH;
+                sink += tree.rangeToArray(key, hi, rangeBuffer, 0);
+            } else if(operation == MERGE) {
+                tree = AvlTree.mergeAdaptive(tree, batch);
+            } else {
+                sink += new AvlTree(buildArray).size;
+            }
+            
+            long latency = System.nanoTime() - opStart;
+            
+            if(measured) {
+                histograms[operation].record(latency);
+                allocated[operation] += allocatedBytes() - allocatedStart;
+            }
+            
+        }
+        
+    }
+    
+    /**
+     * A method to load a new tree and run the workload with keys from one
+     * distribution, printing one line of results per operation type.
+     *
+     * @param dist the index of the distribution in uniform, zipfian,
+     * sequential, interleaved
+     * @param out the stream to print results to
+     */
+    public void run(int dist, PrintStream out) {
+        
+        distribution = dist;
+        sequence = 0;
+        
+        //load the tree and the array for bulk builds
+        int[] data = new int[size];
+        tree = new AvlTree(data, sortedKeys(data, size), null);
+        buildArray = new int[BUILD_SIZE];
+        buildArray = Arrays.copyOf(buildArray, sortedKeys(buildArray, BUILD_SIZE));
+        
+        runOperations(warmup, false);
+        
+        for(int i = 0; i < histograms.length; i++) {
+            histograms[i].reset();
+            allocated[i] = 0;
+        }
+        
+        long allocatedStart = allocatedBytes();
+        long start = System.nanoTime();
+        
+        runOperations(ops, true);
+        
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double allocatedMegabytes = (allocatedBytes() - allocatedStart) / 1e6;
+        
+        for(int i = 0; i < OPERATIONS.length; i++) {
+            
+            LatencyHistogram histogram = histograms[i];
+            
+            if(histogram.count() == 0) {
+                continue;
+            }
+            
+            out.println(DISTRIBUTIONS[dist] + "," + OPERATIONS[i] + ","
+                        + histogram.count() + "," + rate + ","
+                        + Math.round(ops / seconds) + ","
+                        + histogram.valueAtPercentile(50) + ","
+                        + histogram.valueAtPercentile(99) + ","
+                        + histogram.valueAtPercentile(99.9) + ","
+                        + histogram.max() + ","
+                        + allocated[i] / histogram.count() + ","
+                        + Math.round(allocatedMegabytes / seconds) + ","
+                        + tree.size);
+            
+        }
+        
+    }
+    
+    /* A helper function to parse a mix such as insert:40,lookup:60 into a
+     * weight for each operation type.
+     */
+    private static int[] parseMix(String mix) {
+        
+        int[] weights = new int[OPERATIONS.length];
+        
+        for(String part : mix.split(",")) {
+            
+            String[] pair = part.split(":");
+            int operation = Arrays.asList(OPERATIONS).indexOf(pair[0].trim());
+            
+            if(operation < 0 || pair.length != 2) {
+                throw new IllegalArgumentException("unknown operation in mix: " + part);
+            }
+            
+            weights[operation] = Integer.parseInt(pair[1].trim());
+            
+            if(weights[operation] < 0) {
+                throw new IllegalArgumentException("negative weight in mix: " + part
+                                                   + ", expected operation:weight with weight >= 0");
+            }
+            
+        }
+        
+        //an operation is picked with nextInt of the total weight
+        if(Arrays.stream(weights).sum() <= 0) {
+            throw new IllegalArgumentException("mix has no positive weight: " + mix
+                                               + ", expected operation:weight pairs such as "
+                                               + "insert:40,lookup:60");
+        }
+        
+        return weights;
+        
+    }
+    
+    /**
+     * The application method. Options are described above.
+     *
+     * @param args The command-line arguments, as name=value pairs
+     * @throws FileNotFoundException if the output file cannot be created
+     */
+    public static void main(String[] args) throws FileNotFoundException {
+        
+        int ops = 200000;
+        int warmup = 50000;
+        int rate = 0;
+        int size = 100000;
+        int keySpace = 1 << 20;
+        String mix = "insert:40,lookup:40,range:10,merge:5,build:5";
+        String dist = "all";
+        long seed = 1;
+        String outFile = null;
+        
+        for(String arg : args) {
+            
+            int split = arg.indexOf('=');
+            
+            if(split < 0) {
+                throw new IllegalArgumentException("expected name=value: " + arg);
+            }
+            
+            String name = arg.substring(0, split);
+            String value = arg.substring(split + 1);
+            
+            if(name.equals("ops")) {
+                ops = Integer.parseInt(value);
+            } else if(name.equals("warmup")) {
+                warmup = Integer.parseInt(value);
+            } else if(name.equals("rate")) {
+                rate = Integer.parseInt(value);
+            } else if(name.equals("size")) {
+                size = Integer.parseInt(value);
+            } else if(name.equals("keys")) {
+                keySpace = Integer.parseInt(value);
+                
+                //the interleaved distribution splits the key space in half
+                if(keySpace < 2) {
+                    throw new IllegalArgumentException("too few keys: " + value
+                                                       + ", expected keys=n with n >= 2");
+                }
+            } else if(name.equals("mix")) {
+                mix = value;
+            } else if(name.equals("dist")) {
+                //accept only a known distribution or all
+                if(!value.equals("all") && !Arrays.asList(DISTRIBUTIONS).contains(value)) {
+                    throw new IllegalArgumentException("unknown distribution: " + value
+                                                       + ", expected one of "
+                                                       + String.join(", ", DISTRIBUTIONS)
+                                                       + " or all");
+                }
+                
+                dist = value;
+            } else if(name.equals("seed")) {
+                seed = Long.parseLong(value);
+            } else if(name.equals("out")) {
+                outFile = value;
+            } else {
+                throw new IllegalArgumentException("unknown option: " + name);
+            }
+            
+        }
+        
+        AvlLoadGenerator generator = new AvlLoadGenerator(ops, warmup, rate, size, keySpace,
+                                                          parseMix(mix), seed);
+        
+        //open the output file only once every option is valid
+        PrintStream out = outFile == null ? System.out : new PrintStream(outFile);
+        
+        try {
+            
+            out.println("distribution,operation,count,targetRate,achievedRate,p50Nanos,"
+                        + "p99Nanos,p999Nanos,maxNanos,bytesPerOp,allocMBPerSec,treeSize");
+            
+            for(int i = 0; i < DISTRIBUTIONS.length; i++) {
+                if(dist.equals("all") || dist.equals(DISTRIBUTIONS[i])) {
+                    generator.run(i, out);
+                }
+            }
+            
+        } finally {
+            
+            //close a file, but leave the console open for the caller
+            if(out == System.out) {
+                out.flush();
+            } else {
+                out.close();
+            }
+            
+        }
+        
+    }
+    
+}
@@ -0,0 +1,35 @@
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This class implements a Java Flight Recorder event for a merge of two AVL
+ * trees, recording the strategy used and the sizes of the trees. The event
+ * costs next to nothing unless a recording with it enabled is running.
+ *
+ * Created as part of an assignment for Foundations of Algorithms, a graduate-
+ * level course at Johns Hopkins University.
+ *
+ * @author Joseph Scheidt
+ * @version Programming Assignment 1
+ */
+@Name("avl.Merge")
+@Label("AVL Tree Merge")
+@Category("AVL Tree")
+class AvlMergeEvent extends Event {
+    
+    @Label("Strategy")
+    String strategy;
+    
+    @Label("First Tree Size")
+    int size1;
+    
+    @Label("Second Tree Size")
+    int size2;
+    
+    @Label("Merged Tree Size")
+    int mergedSize;
+
+
+}
@@ -0,0 +1,147 @@
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class collects operation counts for one or more AVL trees: key
+ * comparisons, left, right and double rotations, node allocations, the
+ * deepest descent made by an insert, and the number of merges taken down
+ * each merge path. A tree only counts if it has been given a metrics object,
+ * so trees without one pay nothing but a null check.
+ *
+ * Counters are LongAdders, so trees may be shared between threads (as in a
+ * parallel merge) without losing counts, and large runs cannot overflow
+ * them. A double rotation is also counted as one left and one right rotation.
+ *
+ * Created as part of an assignment for Foundations of Algorithms, a graduate-
+ * level course at Johns Hopkins University.
+ *
+ * @author Joseph Scheidt
+ * @version Programming Assignment 1
+ */
+public class AvlMetrics {
+    
+    final LongAdder comparisons = new LongAdder();
+    final LongAdder leftRotations = new LongAdder();
+    final LongAdder rightRotations = new LongAdder();
+    final LongAdder doubleRotations = new LongAdder();
+    final LongAdder allocations = new LongAdder();
+    final LongAccumulator maxDepth = new LongAccumulator(Math::max, 0);
+    
+    //merge counts indexed by strategy ordinal
+    final LongAdder[] merges = new LongAdder[MergeStrategy.values().length];
+    
+    /**
+     * A constructor for the class, with every count at zero.
+     */
+    public AvlMetrics() {
+        
+        for(int i = 0; i < merges.length; i++) {
+            merges[i] = new LongAdder();
+        }
+        
+    }
+    
+    /**
+     * A method to set every count back to zero.
+     */
+    public void reset() {
+        
+        comparisons.reset();
+        leftRotations.reset();
+        rightRotations.reset();
+        doubleRotations.reset();
+        allocations.reset();
+        maxDepth.reset();
+        
+        for(int i = 0; i < merges.length; i++) {
+            merges[i].reset();
+        }
+        
+    }
+    
+    /**
+     * @return the number of key comparisons made
+     */
+    public long comparisons() {
+        
+        return comparisons.sum();
+        
+    }
+    
+    /**
+     * @return the number of left rotations made
+     */
+    public long leftRotations() {
+        
+        return leftRotations.sum();
+        
+    }
+    
+    /**
+     * @return the number of right rotations made
+     */
+    public long rightRotations() {
+        
+        return rightRotations.sum();
+        
+    }
+    
+    /**
+     * @return the number of double rotations made
+     */
+    public long doubleRotations() {
+        
+        return doubleRotations.sum();
+        
+    }
+    
+    /**
+     * @return the number of nodes allocated
+     */
+    public long allocations() {
+        
+        return allocations.sum();
+        
+    }
+    
+    /**
+     * @return the number of levels descended by the deepest insert
+     */
+    public long maxDepth() {
+        
+        return maxDepth.get();
+        
+    }
+    
+    /**
+     * @param strategy the merge path to report
+     * @return the number of merges that took the given path
+     */
+    public long merges(MergeStrategy strategy) {
+        
+        return merges[strategy.ordinal()].sum();
+        
+    }
+    
+    @Override
+    public String toString() {
+        
+        StringBuilder builder = new StringBuilder();
+        
+        builder.append("comparisons=").append(comparisons())
+               .append(" leftRotations=").append(leftRotations())
+               .append(" rightRotations=").append(rightRotations())
+               .append(" doubleRotations=").append(doubleRotations())
+               .append(" allocations=").append(allocations())
+               .append(" maxDepth=").append(maxDepth());
+        
+        for(MergeStrategy strategy : MergeStrategy.values()) {
+            builder.append(" merges.").append(strategy).append('=').append(merges(strategy));
+        }
+        
+        return builder.toString();
+        
+    }
+
+
+}
@@ -13,6 +13,9 @@ public class AvlNode {
     int height;
     int key;
     
+    //number of nodes in the subtree rooted at this node
+    int size;
+    
     /**
      * A constructor for the class, for a root node.
      *
@@ -20,11 +23,12 @@ public class AvlNode {
      */
     public AvlNode(int k) {
         
-        //intialize pointers to null, height to 1, key to paramater value
+        //intialize pointers to null, height and size to 1, key to paramater value
         left = null;
         right = null;
         height = 1;
         key = k;
+        size = 1;
         
     }
 
@@ -0,0 +1,33 @@
+/**
+ * This class holds the result of splitting an AVL tree around a key value:
+ * the subtree of keys smaller than the key, the subtree of keys larger than
+ * the key, and the node holding the key itself if the tree contained it.
+ * Created as part of an assignment for Foundations of Algorithms, a graduate-
+ * level course at Johns Hopkins University.
+ *
+ * @author Joseph Scheidt
+ * @version Programming Assignment 1
+ */
+public class AvlSplit {
+
+    AvlNode left;
+    AvlNode found;
+    AvlNode right;
+    
+    /**
+     * A constructor for the class.
+     *
+     * @param l the subtree of keys smaller than the split key
+     * @param f the node holding the split key, or null if it was not found
+     * @param r the subtree of keys larger than the split key
+     */
+    public AvlSplit(AvlNode l, AvlNode f, AvlNode r) {
+        
+        left = l;
+        found = f;
+        right = r;
+        
+    }
+
+
+}
@@ -1,3 +1,9 @@
+import java.io.FileNotFoundException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * This class implements an AVL tree of integers, along with functions for 
  * constructing such a tree from a sorted array, sorting an AVL tree into 
@@ -6,8 +12,8 @@
  * This implementation is intended to be a proof for hypotheses involving
  * asymptotic analysis of the given algorithms above, and as such is not
  * intended to be used for actual AVL tree implementation: fields are public,
- * getter and setter methods are eschewed, repeated values are unsupported,
- * etc.
+ * getter and setter methods are eschewed, repeated values are unsupported
+ * outside of multiset mode, etc.
  *
  * Created as part of an assignment for Foundations of Algorithms, a graduate-
  * level course at Johns Hopkins University.
@@ -23,11 +29,27 @@ public class AvlTree {
     //number of tree nodes
     int size;
     
-    //array index for sorting tree to array
-    private int arrayIndex;
+    //operation counters for algorithmic analysis, or null if not counting
+    AvlMetrics metrics;
+    
+    //whether repeated keys are counted in their node rather than dropped
+    boolean multiset;
+    
+    //keys inserted while rebalancing is deferred, or null if not deferred
+    private int[] pending;
+    private int pendingLength;
+    
+    //a batch at least 1/BATCH_REBUILD_RATIO the size of the tree is merged by rebuilding
+    private static final int BATCH_REBUILD_RATIO = 4;
     
-    //comparison counter for algorithmic analysis
-    static int comparisonCount = 0;
+    //estimated cost of a key in a flatten, merge and rebuild, in insert steps
+    private static final int LINEAR_KEY_COST = 3;
+    
+    //number of lookups whose descents are interleaved by containsAll
+    private static final int LOOKUP_LANES = 8;
+    
+    //starting number of keys held back while rebalancing is deferred
+    private static final int DEFERRED_BUFFER_MIN = 1 << 12;
     
     /**
      * A simple function to return the height of a particular node.
@@ -64,20 +86,133 @@ public class AvlTree {
     
     }
     
+    /**
+     * A simple function to return the number of nodes in the subtree rooted
+     * at a particular node. This function helps avoid NullPointerExceptions.
+     *
+     * @param node the node whose subtree is counted
+     * @return the number of nodes in the subtree
+     */
+    public static int size(AvlNode node) {
+        
+        if(node == null) {
+            return 0;
+        } else {
+            return node.size;
+        }
+        
+    }
+    
+    /**
+     * A simple function to return the number of times the key of a
+     * particular node occurs. Nodes of a tree that is not a multiset carry
+     * no count, and their key occurs once.
+     *
+     * @param node the node whose key is counted
+     * @return the count of the node's key
+     */
+    public static int count(AvlNode node) {
+        
+        if(node instanceof CountedAvlNode) {
+            return ((CountedAvlNode) node).count;
+        } else {
+            return 1;
+        }
+        
+    }
+    
+    /* A helper function to count one key comparison, if this tree is
+     * collecting metrics.
+     */
+    private void countComparison() {
+        
+        if(metrics != null) {
+            metrics.comparisons.increment();
+        }
+        
+    }
+    
+    /* A helper function to create a new node, counting the allocation if
+     * this tree is collecting metrics. Only a multiset tree gives its nodes
+     * a count.
+     */
+    AvlNode newNode(int key) {
+        
+        if(metrics != null) {
+            metrics.allocations.increment();
+        }
+        
+        if(multiset) {
+            return new CountedAvlNode(key);
+        }
+        
+        return new AvlNode(key);
+        
+    }
+    
+    /* A helper function to add occurrences to the count of a node's key in
+     * a multiset tree, returning the node to keep in its place. A node that
+     * came from a tree that was not a multiset has no count, so it is
+     * replaced by a counted copy.
+     */
+    AvlNode addCount(AvlNode node, int occurrences) {
+        
+        if(node instanceof CountedAvlNode) {
+            ((CountedAvlNode) node).count += occurrences;
+            return node;
+        }
+        
+        if(metrics != null) {
+            metrics.allocations.increment();
+        }
+        
+        CountedAvlNode counted = new CountedAvlNode(node.key);
+        counted.left = node.left;
+        counted.right = node.right;
+        counted.height = node.height;
+        counted.size = node.size;
+        counted.count += occurrences;
+        
+        return counted;
+        
+    }
+    
+    /**
+     * A simple function to return the number of keys in the tree, counting
+     * any held back by deferred rebalancing.
+     *
+     * @return the number of keys in the tree
+     */
+    public int size() {
+        
+        flushPending();
+        
+        return size;
+        
+    }
+    
     /**
      * A simple function to return the maximum value of a tree.
      *
      * @return the maximum value of a tree
+     * @throws NoSuchElementException if the tree is empty
      */
     public int max() {
     
+        flushPending();
+        
+        //an empty tree has no key to return
+        if(root == null) {
+            throw new NoSuchElementException();
+        }
+        
         AvlNode rightMost = root;
         
         
         while(rightMost.right != null) {
         
             //increase comparison counter
-            comparisonCount++;
+            countComparison();
             
             //traverse towards right of tree
             rightMost = rightMost.right;
@@ -92,16 +227,24 @@ public class AvlTree {
      * A simple function to return the minimum value of a tree.
      *
      * @return the minimum value of a tree
+     * @throws NoSuchElementException if the tree is empty
      */
     public int min() {
     
+        flushPending();
+        
+        //an empty tree has no key to return
+        if(root == null) {
+            throw new NoSuchElementException();
+        }
+        
         AvlNode leftMost = root;
         
         
         while(leftMost.left != null) {
         
             //increase comparison counter
-            comparisonCount++;
+            countComparison();
             
             //traverse towards right of tree
             leftMost = leftMost.left;
@@ -114,6 +257,16 @@ public class AvlTree {
     
     
     
+    /**
+     * A constructor for the class. Initializes an empty tree.
+     */
+    AvlTree() {
+        
+        root = null;
+        size = 0;
+        
+    }
+    
     /**
      * A constructor for the class. Initializes a one node tree.
      *
@@ -121,11 +274,25 @@ public class AvlTree {
      */
     public AvlTree(int key) {
        
-        root = new AvlNode(key);
-        size = 1;
+        this(key, null);
        
     }
     
+    /**
+     * A constructor for the class. Initializes a one node tree that counts
+     * its operations in the given metrics.
+     *
+     * @param key the integer key value for the root node.
+     * @param metrics the counters to update, or null to not count
+     */
+    public AvlTree(int key, AvlMetrics metrics) {
+        
+        this.metrics = metrics;
+        root = newNode(key);
+        size = 1;
+        
+    }
+    
     /**
      * A constructor for the class. Takes a sorted integer array and builds
      * a complete AVL tree in O(n) time, using divide and conquer and
@@ -137,308 +304,2627 @@ public class AvlTree {
      */
     public AvlTree(int[] data) {
     
-        //initialize size
-        size = 1;
+        this(data, data.length, null);
+    
+    }
+    
+    /**
+     * A constructor for the class. Takes a sorted integer array and builds
+     * a complete AVL tree in O(n) time, as above, counting its operations
+     * in the given metrics.
+     *
+     * @param data the integer array to transform into an AVL tree
+     * @param metrics the counters to update, or null to not count
+     */
+    public AvlTree(int[] data, AvlMetrics metrics) {
+        
+        this(data, data.length, metrics);
+        
+    }
+    
+    /**
+     * A constructor for the class. Builds a complete AVL tree from the first
+     * length values of a sorted integer array, so that callers holding a
+     * partially filled array (such as the output of a merge that dropped
+     * duplicates) do not need to copy it to an exact-size array first.
+     *
+     * @param data the sorted integer array to transform into an AVL tree
+     * @param length the number of leading values of data to use
+     * @param metrics the counters to update, or null to not count
+     */
+    AvlTree(int[] data, int length, AvlMetrics metrics) {
+        
+        this(data, null, length, metrics);
+    
+    }
+    
+    /**
+     * A constructor for the class. Builds a multiset AVL tree, in which each
+     * node holds a key and the number of times it occurs, from a sorted
+     * integer array of distinct keys and a matching array of counts, in O(n)
+     * time as in the array constructor. Inserting a key already in a
+     * multiset tree adds to its count instead of creating a new node, so the
+     * tree's size and memory follow the number of distinct keys rather than
+     * the number of insertions. Empty arrays give an empty multiset tree.
+     *
+     * @param data the sorted distinct keys to transform into an AVL tree
+     * @param counts the number of times each key occurs, all at least 1
+     * @param metrics the counters to update, or null to not count
+     */
+    public AvlTree(int[] data, int[] counts, AvlMetrics metrics) {
+        
+        this(data, counts, data.length, metrics);
+        
+    }
+    
+    /* A constructor for the class, building a tree from the first length
+     * values of a sorted array as above. The tree is a multiset tree when
+     * counts are given, and a plain tree when counts is null.
+     */
+    AvlTree(int[] data, int[] counts, int length, AvlMetrics metrics) {
+        
+        this.metrics = metrics;
+        multiset = counts != null;
+        
+        //an empty range gives an empty tree
+        if(length == 0) {
+            root = null;
+            size = 0;
+            return;
+        }
+        
+        //initialize root using helper to find correct (balanced) value
+        root = buildTree(data, counts, 0, length - 1);
+        
+        //size is kept by the root
+        size = size(root);
+    
+    }
+    
+    /**
+     * A method to build a complete AVL tree from a sorted integer array using
+     * all cores. As in the array constructor, the middle value becomes the
+     * root; the halves on either side share nothing, so they are built by
+     * separate fork/join tasks. This takes O(n) work and O(lg n) span beyond
+     * the sequential cutoff.
+     *
+     * @param data the integer array to transform into an AVL tree
+     * @param metrics the counters to update, or null to not count
+     * @return the AVL tree
+     */
+    public static AvlTree parallelBuild(int[] data, AvlMetrics metrics) {
+        
+        AvlTree tree = new AvlTree();
+        tree.metrics = metrics;
+        
+        if(data.length > 0) {
+            tree.root = ForkJoinPool.commonPool().invoke(
+                new AvlBuildTask(tree, data, 0, data.length - 1));
+            tree.size = size(tree.root);
+        }
+        
+        return tree;
+        
+    }
+    
+    /* a helper function, called recursively, to build an AVL tree from an
+     * array of integers. It takes the middle value of the sorted array,
+     * assigns it to a node, then calls itself on the left half of the array
+     * and the right half of the arrary until each value is assigned a node.
+     * Since each value is visited once, this takes O(n) time.
+     */
+    AvlNode buildTree(int[] data, int beg, int end) {
+        
+        return buildTree(data, null, beg, end);
+        
+    }
+    
+    /* The build described above, also giving each node the count at the same
+     * index of the counts array, unless counts is null.
+     */
+    AvlNode buildTree(int[] data, int[] counts, int beg, int end) {
+        
+        //find middle of subarray
+        int middle = beg + (end - beg) / 2;
+        
+        //create node from middle value
+        AvlNode node = newNode( data[middle] );
+        
+        //counts are only given to a multiset tree, whose nodes are counted
+        if(counts != null) {
+            ((CountedAvlNode) node).count = counts[middle];
+        }
+        
+        //increase comparison count
+        countComparison();
+        
+        //assign remaining values to left and right subtrees
+        if(beg < middle) {
+            
+            node.left = buildTree(data, counts, beg, middle - 1);
+            
+        }
+        
+        //increase comparison count
+        countComparison();
+        
+        if(middle < end) {
+            
+            node.right = buildTree(data, counts, middle + 1, end);
+            
+        }
+        
+        //calcuate node's height and subtree size
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        node.size = size(node.left) + size(node.right) + 1;
+        
+        //return complete node
+        return node;
+        
+    }
+    
+    /**
+     * A method to turn an AVL tree into a sorted array of integers. It goes
+     * in the order of left subtree, current node, right subtree, keeping the
+     * path back up the tree on an explicit stack rather than recursing.
+     * Since each node is visited once, this takes O(n) time.
+     *
+     * No state is kept in the tree between calls, so several threads may
+     * sort the same (unchanging) tree at once.
+     *
+     * This is the second of three experimental methods.
+     *
+     * @return a sorted integer array
+    */
+    public int[] treeToArray() {
+        
+        flushPending();
+        
+        //initalize return array using size of tree
+        int[] returnArray = new int[size];
+        
+        sortTree(root, returnArray, 0);
+        
+        return returnArray;
+        
+    }
+    
+    /**
+     * A method to return the count of each key in the tree, in the same
+     * order as the keys returned by treeToArray, in O(n) time. Every count
+     * of a tree that is not a multiset is 1.
+     *
+     * @return the counts of the keys, in sorted key order
+     */
+    public int[] countsToArray() {
+        
+        flushPending();
+        
+        int[] returnArray = new int[size];
+        
+        sortTree(root, null, returnArray, 0);
+        
+        return returnArray;
+        
+    }
+    
+    /* A helper function to store the nodes of a subtree in the array,
+     * starting at the given index, in the order left child, node, right
+     * child to build a sorted array. Nodes whose left subtrees are still
+     * being stored wait on a stack, which never holds more nodes than the
+     * height of the subtree. Returns the index after the last value stored.
+     */
+    int sortTree(AvlNode node, int[] treeArray, int index) {
+        
+        return sortTree(node, treeArray, null, index);
+        
+    }
+    
+    /* The traversal described above, storing the keys in treeArray and the
+     * counts in countArray at the same indexes. Either array may be null if
+     * it is not wanted.
+     */
+    int sortTree(AvlNode node, int[] treeArray, int[] countArray, int index) {
+        
+        AvlNode[] stack = new AvlNode[height(node)];
+        int top = 0;
+        
+        while(node != null || top > 0) {
+            
+            //save path down to leftmost node of subtree
+            while(node != null) {
+                
+                //add 1 to comparison counter
+                countComparison();
+                
+                stack[top++] = node;
+                node = node.left;
+                
+            }
+            
+            //add next node's key value and count to arrays and increase index
+            node = stack[--top];
+            
+            if(treeArray != null) {
+                treeArray[index] = node.key;
+            }
+            
+            if(countArray != null) {
+                countArray[index] = count(node);
+            }
+            
+            index++;
+            
+            //add 1 to comparison counter
+            countComparison();
+            
+            //continue with right subtree
+            node = node.right;
+            
+        }
+        
+        return index;
+    
+    }
+    
+    /**
+     * A method to turn an AVL tree into a sorted array of integers using all
+     * cores. Each subtree's keys start at an index given by the sizes of the
+     * subtrees before it, so the left and right subtrees of a node are stored
+     * by separate fork/join tasks into disjoint slices of the array. This
+     * takes O(n) work and O(lg n) span beyond the sequential cutoff.
+     *
+     * @return a sorted integer array
+     */
+    public int[] parallelTreeToArray() {
+        
+        flushPending();
+        
+        int[] returnArray = new int[size];
+        
+        if(root != null) {
+            ForkJoinPool.commonPool().invoke(new AvlFlattenTask(this, root, returnArray, 0));
+        }
+        
+        return returnArray;
+        
+    }
+    
+    /**
+     * A method to return an immutable, read-optimized copy of the tree, with
+     * its keys laid out in one array in breadth first order for branch-free
+     * lookups. The copy is unaffected by later changes to the tree.
+     *
+     * @return a frozen copy of the tree
+     */
+    public FrozenAvlTree freeze() {
+        
+        flushPending();
+        
+        return new FrozenAvlTree(treeToArray());
+        
+    }
+    
+    /**
+     * A method to return an iterator over the key values of the tree in
+     * sorted order, without copying them to an array. The tree must not be
+     * changed while the iterator is in use.
+     *
+     * @return an iterator over the tree's key values
+     */
+    public AvlIntIterator iterator() {
+        
+        flushPending();
+        
+        return new AvlIntIterator(this);
+        
+    }
+    
+    /**
+     * A method to return an iterator over the key values of the tree from
+     * lo to hi, inclusive, in sorted order. Subtrees outside the range are
+     * skipped. The tree must not be changed while the iterator is in use.
+     *
+     * @param lo The smallest key value to return
+     * @param hi The largest key value to return
+     * @return an iterator over the tree's key values in the range
+     */
+    public AvlIntIterator rangeIterator(int lo, int hi) {
+        
+        flushPending();
+        
+        AvlIntIterator iterator = new AvlIntIterator(this);
+        iterator.reset(this, lo, hi);
+        
+        return iterator;
+        
+    }
+    
+    /**
+     * A method to copy the key values of the tree from lo to hi, inclusive,
+     * into a caller's array in sorted order, without allocating. Subtrees
+     * lying wholly outside the range are never entered, so copying k keys
+     * takes O(lg n + k) time. The number of keys is found first, so nothing
+     * is written if the array is too small.
+     *
+     * @param lo The smallest key value to copy
+     * @param hi The largest key value to copy
+     * @param dst The array to copy into
+     * @param offset The index in dst of the first key copied
+     * @return the number of keys copied
+     */
+    public int rangeToArray(int lo, int hi, int[] dst, int offset) {
+        
+        flushPending();
+        
+        int count = countInRange(lo, hi);
+        
+        if(offset < 0 || offset > dst.length - count) {
+            throw new IndexOutOfBoundsException(count + " keys at offset " + offset
+                                                + " in array of length " + dst.length);
+        }
+        
+        copyRange(root, lo, hi, dst, offset);
+        
+        return count;
+        
+    }
+    
+    /* A helper function, called recursively, to store the keys of a subtree
+     * between lo and hi in the array from the given index, in the order left
+     * child, node, right child. A node outside the range leads only to its
+     * child on the side of the range. Returns the index after the last key.
+     */
+    private int copyRange(AvlNode node, int lo, int hi, int[] dst, int index) {
+        
+        while(node != null) {
+            
+            //increase comparison counter
+            countComparison();
+            
+            if(node.key < lo) {
+                node = node.right;
+            } else if(node.key > hi) {
+                node = node.left;
+            } else {
+                index = copyRange(node.left, lo, hi, dst, index);
+                dst[index++] = node.key;
+                node = node.right;
+            }
+            
+        }
+        
+        return index;
+        
+    }
+    
+    /**
+     * A method to return the rank of a key value: the number of keys in the
+     * tree smaller than it. The path to the key's position is followed down,
+     * adding the size of each left subtree passed over, which takes O(lg n)
+     * time. The key itself need not be in the tree.
+     *
+     * @param key The key value to rank
+     * @return the number of keys smaller than key
+     */
+    public int rank(int key) {
+        
+        flushPending();
+        
+        int rank = 0;
+        AvlNode node = root;
+        
+        while(node != null) {
+            
+            //increase comparison counter
+            countComparison();
+            
+            //node and its left subtree are all smaller when going right
+            if(key <= node.key) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+            
+        }
+        
+        return rank;
+        
+    }
+    
+    /* A helper function to return the number of keys in the tree smaller
+     * than or equal to a key value, in the same way as rank.
+     */
+    private int countAtMost(int key) {
+        
+        int count = 0;
+        AvlNode node = root;
+        
+        while(node != null) {
+            
+            //increase comparison counter
+            countComparison();
+            
+            if(key < node.key) {
+                node = node.left;
+            } else {
+                count += size(node.left) + 1;
+                node = node.right;
+            }
+            
+        }
+        
+        return count;
+        
+    }
+    
+    /**
+     * A method to return the key value at a given position in sorted order,
+     * so that select(k) is treeToArray()[k], in O(lg n) time. Subtree sizes
+     * show at each node whether the position lies in the left subtree, at
+     * the node, or in the right subtree.
+     *
+     * @param k The position of the key, from 0 to size - 1
+     * @return the (k+1)th smallest key value
+     */
+    public int select(int k) {
+        
+        flushPending();
+        
+        if(k < 0 || k >= size) {
+            throw new IndexOutOfBoundsException("position " + k + " in tree of size " + size);
+        }
+        
+        AvlNode node = root;
+        
+        while(true) {
+            
+            //increase comparison counter
+            countComparison();
+            
+            int leftSize = size(node.left);
+            
+            if(k < leftSize) {
+                node = node.left;
+            } else if(k > leftSize) {
+                k -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.key;
+            }
+            
+        }
+        
+    }
+    
+    /**
+     * A method to count the keys in the tree between two key values,
+     * inclusive, in O(lg n) time.
+     *
+     * @param lo The smallest key value to count
+     * @param hi The largest key value to count
+     * @return the number of keys k with lo <= k <= hi
+     */
+    public int countInRange(int lo, int hi) {
+        
+        flushPending();
+        
+        if(lo > hi) {
+            return 0;
+        }
+        
+        return countAtMost(hi) - rank(lo);
+        
+    }
+    
+    /**
+     * A method to return the number of times a key value occurs in the
+     * tree, in O(lg n) time. In a tree that is not a multiset this is 1 for
+     * a key in the tree. The order statistics above count distinct keys.
+     *
+     * @param key The key value to look for
+     * @return the count of the key, or 0 if it is not in the tree
+     */
+    public int count(int key) {
+        
+        flushPending();
+        
+        AvlNode node = root;
+        
+        while(node != null) {
+            
+            //increase comparison counter
+            countComparison();
+            
+            if(node.key > key) {
+                node = node.left;
+            } else if(node.key < key) {
+                node = node.right;
+            } else {
+                return count(node);
+            }
+            
+        }
+        
+        return 0;
+        
+    }
+    
+    /**
+     * A method to test whether a key value is in the tree, in O(lg n) time.
+     *
+     * @param key The key value to look for
+     * @return true if the tree contains the key
+     */
+    public boolean contains(int key) {
+        
+        flushPending();
+        
+        return count(key) > 0;
+        
+    }
+    
+    /**
+     * A method to test whether each of a batch of key values is in the
+     * tree. Each lookup is a chain of node loads that depend on one another,
+     * so rather than finishing one lookup before starting the next, the
+     * descents of several lookups are interleaved a level at a time. The
+     * loads of different lookups are independent, so the processor can wait
+     * on several cache misses at once instead of one after another. When a
+     * lookup finishes, the next probe takes its place, keeping every lane busy.
+     *
+     * @param probes The key values to look for
+     * @param out The array to store the results in, out[i] being true if the
+     * tree contains probes[i]
+     * @throws IndexOutOfBoundsException if out is shorter than probes
+     */
+    public void containsAll(int[] probes, boolean[] out) {
+        
+        flushPending();
+        
+        if(out.length < probes.length) {
+            throw new IndexOutOfBoundsException(probes.length + " probes for results array of length "
+                                                + out.length);
+        }
+        
+        //current node and probe index of each lookup in progress
+        AvlNode[] cursors = new AvlNode[LOOKUP_LANES];
+        int[] laneProbes = new int[LOOKUP_LANES];
+        int active = 0;
+        int next = 0;
+        long comparisons = 0;
+        
+        //start the first lookups at the root
+        while(active < LOOKUP_LANES && next < probes.length) {
+            cursors[active] = root;
+            laneProbes[active++] = next++;
+        }
+        
+        while(active > 0) {
+            
+            //move every lookup in progress down one level
+            int lane = 0;
+            
+            while(lane < active) {
+                
+                AvlNode node = cursors[lane];
+                int probe = laneProbes[lane];
+                
+                if(node != null && node.key != probes[probe]) {
+                    comparisons++;
+                    cursors[lane] = node.key > probes[probe] ? node.left : node.right;
+                    lane++;
+                    continue;
+                }
+                
+                //lookup finished, so store result and free its lane
+                comparisons++;
+                out[probe] = node != null;
+                
+                if(next < probes.length) {
+                    cursors[lane] = root;
+                    laneProbes[lane++] = next++;
+                } else {
+                    active--;
+                    cursors[lane] = cursors[active];
+                    laneProbes[lane] = laneProbes[active];
+                    cursors[active] = null;
+                }
+                
+            }
+            
+        }
+        
+        //increase comparison counter by number of levels descended
+        if(metrics != null) {
+            metrics.comparisons.add(comparisons);
+        }
+        
+    }
+    
+    /**
+     * A method to insert a key value into the tree without recursion. The
+     * path of the insert is saved on a stack on the way down, and after the
+     * new node is attached the method walks back up the stack, rebalancing
+     * each node, until a node's height is unchanged; above that only the
+     * subtree sizes change. The path stack is the only state used, so no
+     * tree-wide cursor is needed. In a multiset tree, a key already in the
+     * tree has its count increased instead.
+     *
+     * While rebalancing is deferred, the key is held back instead; see
+     * deferRebalancing.
+     *
+     * @param key The key value for the new node
+     */
+    public void insert(int key) {
+        
+        if(pending != null) {
+            insertDeferred(key);
+            return;
+        }
+        
+        AvlNode[] path = new AvlNode[height(root)];
+        int depth = 0;
+        AvlNode node = root;
+        
+        //find empty position for key, saving path
+        while(node != null) {
+            
+            //increase comparison counter
+            countComparison();
+            
+            if(node.key > key) {
+                path[depth++] = node;
+                node = node.left;
+            } else if(node.key < key) {
+                path[depth++] = node;
+                node = node.right;
+            } else {
+                if(multiset) {
+                    replace(path, depth, node, addCount(node, 1));
+                }
+                return;
+            }
+            
+        }
+        
+        //create new node and increase size of tree
+        AvlNode child = newNode(key);
+        size++;
+        
+        if(metrics != null) {
+            metrics.maxDepth.accumulate(depth + 1);
+        }
+        
+        //attach to parent and rebalance back up the path
+        while(depth > 0) {
+            
+            AvlNode parent = path[--depth];
+            int oldHeight = parent.height;
+            
+            if(parent.key > key) {
+                parent.left = child;
+            } else {
+                parent.right = child;
+            }
+            
+            //increase comparison counter
+            countComparison();
+            
+            child = rebalance(parent);
+            
+            //once a subtree keeps its height, only sizes above it change
+            if(child == parent && parent.height == oldHeight) {
+                
+                while(depth > 0) {
+                    path[--depth].size++;
+                }
+                
+                return;
+                
+            }
+            
+        }
+        
+        root = child;
+        
+    }
+    
+    /* A helper function to put a replacement node in place of a node found
+     * at the given depth of an insert path, in its parent or at the root.
+     */
+    private void replace(AvlNode[] path, int depth, AvlNode node, AvlNode replacement) {
+        
+        if(replacement == node) {
+            return;
+        }
+        
+        if(depth == 0) {
+            root = replacement;
+        } else if(path[depth - 1].left == node) {
+            path[depth - 1].left = replacement;
+        } else {
+            path[depth - 1].right = replacement;
+        }
+        
+    }
+    
+    /**
+     * A method to defer rebalancing during a burst of inserts. Until
+     * rebalance is called, insert(int) only appends the key to a buffer,
+     * with no descent, rotation or node allocation. Whenever the buffer
+     * grows as large as the tree, it is sorted in parallel and added with
+     * insertAll, which rebuilds the tree in linear time with no rotations,
+     * so the tree is always a strict AVL tree and each key costs amortized
+     * O(lg n) time, spent in sorting sequential memory rather than in
+     * following pointers.
+     *
+     * Any other method that reads or changes the tree, including size(),
+     * delete and the merges, first adds the buffered keys, so it sees every
+     * key inserted so far. Rebalancing stays deferred afterward, so reads
+     * mixed into a burst of inserts give up the benefit of the buffer.
+     */
+    public void deferRebalancing() {
+        
+        if(pending == null) {
+            pending = new int[DEFERRED_BUFFER_MIN];
+            pendingLength = 0;
+        }
+        
+    }
+    
+    /**
+     * A method to end deferred rebalancing, adding any keys held back since
+     * deferRebalancing was called to the tree with a single insertAll. The
+     * tree is then a strict AVL tree holding every inserted key.
+     */
+    public void rebalance() {
+        
+        if(pending != null) {
+            addPending();
+            pending = null;
+        }
+        
+    }
+    
+    /* A helper function to hold back a key while rebalancing is deferred,
+     * adding the buffer to the tree once it is as large as the tree, and
+     * otherwise doubling it when full.
+     */
+    private void insertDeferred(int key) {
+        
+        if(pendingLength == pending.length) {
+            if(pendingLength >= size) {
+                addPending();
+            } else {
+                pending = Arrays.copyOf(pending, 2 * pending.length);
+            }
+        }
+        
+        pending[pendingLength++] = key;
+        
+    }
+    
+    /* A helper function to sort the held back keys, drop repeats unless this
+     * is a multiset tree, and add them to the tree with insertAll. The buffer
+     * is emptied first, so the insertAll does not add it again.
+     */
+    private void addPending() {
+        
+        Arrays.parallelSort(pending, 0, pendingLength);
+        
+        int length = pendingLength;
+        
+        if(!multiset) {
+            
+            length = 0;
+            
+            for(int i = 0; i < pendingLength; i++) {
+                if(length == 0 || pending[length - 1] != pending[i]) {
+                    pending[length++] = pending[i];
+                }
+            }
+            
+        }
+        
+        pendingLength = 0;
+        insertAll(Arrays.copyOf(pending, length));
+        
+    }
+    
+    /* A helper function to add any keys held back by deferred rebalancing
+     * to the tree, keeping rebalancing deferred. Every public method that
+     * reads or changes the tree, other than insert(int), calls this first, so
+     * held back keys are never missed or outlived by a later delete. Classes
+     * in this package that read the nodes directly call it too.
+     */
+    void flushPending() {
+        
+        if(pendingLength > 0) {
+            addPending();
+        }
+        
+    }
+    
+    /**
+     * A method to insert a key value into the tree. After the new node is
+     * created, the method bubbles back up the path of the insert, to rotate
+     * nodes as necessary in order to maintain the balanced properties of the
+     * tree. In a multiset tree, a key already in the tree has its count
+     * increased instead. Any keys held back by deferred rebalancing are
+     * added first; if node was the root, the insert starts from the root
+     * they leave behind.
+     *
+     * @param node The node to test for insertion
+     * @param key The key value for the node
+     * @return the updated node
+     */
+    public AvlNode insert(AvlNode node, int key) {
+        
+        if(pendingLength > 0) {
+            
+            boolean atRoot = node == root;
+            flushPending();
+            
+            if(atRoot) {
+                node = root;
+            }
+            
+        }
+        
+        return insert(node, key, 1);
+        
+    }
+    
+    /* The recursive insert described above, also passing down the depth of
+     * the node so the deepest descent can be recorded.
+     */
+    private AvlNode insert(AvlNode node, int key, int depth) {
+        
+        //increase comparison counter
+        countComparison();
+        
+        //create new node if empty, otherwise send to right or left child
+        if(node == null) {
+            node = newNode(key);
+            //increase size of tree
+            size++;
+            if(metrics != null) {
+                metrics.maxDepth.accumulate(depth);
+            }
+            return node;
+        } else if(node.key > key) {
+            node.left = insert(node.left, key, depth + 1);
+        } else if(node.key < key) {
+            node.right = insert(node.right, key, depth + 1);
+        } else {
+            if(multiset) {
+                return addCount(node, 1);
+            }
+            return node;
+        }
+        
+        //update height and subtree size for all parent nodes
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        node.size = size(node.left) + size(node.right) + 1;
+        
+        //check balance of children
+        int balance = balance(node);
+        
+        //increase comparison counter
+        countComparison();
+        
+        //rebalance tree if unbalanced
+        
+        //two cases if tree is left heavy
+        if (balance < -1 && key < node.left.key) {
+            return rotateRight(node);
+        } else if (balance < -1 && key > node.left.key) {
+            countDoubleRotation();
+            node.left = rotateLeft(node.left);
+            return rotateRight(node);
+            
+        //two cases if tree is right heavy
+        } else if (balance > 1 && key > node.right.key) {
+            return rotateLeft(node);
+        } else if (balance > 1 && key < node.right.key) {
+            countDoubleRotation();
+            node.right = rotateRight(node.right);
+            return rotateLeft(node);
+        }
+        
+        //otherwise return updated node
+        return node;
+    
+    }
+    
+    /*
+     * Private helper function for rotating nodes to the left and rebalancing
+     * tree. Temporary pointers are used in order to facilitate switching of 
+     * node positions and preserving subtrees.
+     */
+    private AvlNode rotateLeft(AvlNode node) {
+        
+        if(metrics != null) {
+            metrics.leftRotations.increment();
+        }
+        
+        //temporary pointers
+        AvlNode newParent = node.right;
+        AvlNode newLeftRightSubtree = newParent.left;
+        
+        //rotate nodes
+        newParent.left = node;
+        node.right = newLeftRightSubtree;
+        
+        //update heights and subtree sizes
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        newParent.height = Math.max(height(newParent.left), height(newParent.right)) + 1;
+        node.size = size(node.left) + size(node.right) + 1;
+        newParent.size = size(newParent.left) + size(newParent.right) + 1;
+    
+        //return new parent node
+        return newParent;
+    }
+
+    /*
+     * Private helper function for rotating nodes to the right  and rebalancing
+     * tree. Temporary pointers are used in order to facilitate switching of 
+     * node positions and preserving subtrees.
+     */    
+    private AvlNode rotateRight(AvlNode node) {
+        
+        if(metrics != null) {
+            metrics.rightRotations.increment();
+        }
+        
+        //temporary pointers
+        AvlNode newParent = node.left;
+        AvlNode newRightLeftSubtree = newParent.right;
+        
+        //rotate nodes
+        newParent.right = node;
+        node.left = newRightLeftSubtree;
+        
+        //update heights and subtree sizes
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        newParent.height = Math.max(height(newParent.left), height(newParent.right)) + 1;
+        node.size = size(node.left) + size(node.right) + 1;
+        newParent.size = size(newParent.left) + size(newParent.right) + 1;
+    
+        //return new parent node
+        return newParent;
+   
+    }
+    
+    /* A helper function to count one double rotation, if this tree is
+     * collecting metrics. Its two single rotations are counted separately.
+     */
+    private void countDoubleRotation() {
+        
+        if(metrics != null) {
+            metrics.doubleRotations.increment();
+        }
+        
+    }
+    
+    /*
+     * Private helper function for restoring the balance of a node whose
+     * subtrees differ in height by at most two, after an update below it.
+     * The node's height is recalculated, and a single or double rotation is
+     * applied toward the lighter side if the node is unbalanced.
+     */
+    private AvlNode rebalance(AvlNode node) {
+        
+        //update height and subtree size
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        node.size = size(node.left) + size(node.right) + 1;
+        
+        int balance = balance(node);
+        
+        //left heavy, rotating left child first if it leans right
+        if(balance < -1) {
+            if(balance(node.left) > 0) {
+                countDoubleRotation();
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        
+        //right heavy, rotating right child first if it leans left
+        } else if(balance > 1) {
+            if(balance(node.right) < 0) {
+                countDoubleRotation();
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        
+        //otherwise return updated node
+        return node;
+        
+    }
+    
+    /**
+     * A method to join two AVL subtrees around a middle node, where every key
+     * in the left subtree is smaller than the middle key and every key in the
+     * right subtree is larger. The shorter subtree is attached along the
+     * spine of the taller one at a node of matching height, and the path back
+     * up is rebalanced, which takes O(|h1 - h2|) time.
+     *
+     * @param left The subtree of smaller keys
+     * @param middle The node to place between the subtrees
+     * @param right The subtree of larger keys
+     * @return the root of the joined subtree
+     */
+    AvlNode join(AvlNode left, AvlNode middle, AvlNode right) {
+        
+        if(height(left) > height(right) + 1) {
+            return joinRight(left, middle, right);
+        } else if(height(right) > height(left) + 1) {
+            return joinLeft(left, middle, right);
+        }
+        
+        //heights are close enough to place middle node on top
+        middle.left = left;
+        middle.right = right;
+        middle.height = Math.max(height(left), height(right)) + 1;
+        middle.size = size(left) + size(right) + 1;
+        
+        return middle;
+        
+    }
+    
+    /* A helper function, called recursively, to descend the right spine of
+     * a taller left subtree until reaching a subtree no more than one level
+     * taller than the right subtree, join there, and rebalance on the way up.
+     */
+    private AvlNode joinRight(AvlNode left, AvlNode middle, AvlNode right) {
+        
+        if(height(left) <= height(right) + 1) {
+            return join(left, middle, right);
+        }
+        
+        left.right = joinRight(left.right, middle, right);
+        
+        return rebalance(left);
+        
+    }
+    
+    /* A helper function, called recursively, to descend the left spine of
+     * a taller right subtree until reaching a subtree no more than one level
+     * taller than the left subtree, join there, and rebalance on the way up.
+     */
+    private AvlNode joinLeft(AvlNode left, AvlNode middle, AvlNode right) {
+        
+        if(height(right) <= height(left) + 1) {
+            return join(left, middle, right);
+        }
+        
+        right.left = joinLeft(left, middle, right.left);
+        
+        return rebalance(right);
+        
+    }
+    
+    /**
+     * A method to split an AVL subtree around a key value. The path to the
+     * key is followed down, and the subtrees hanging off either side of it
+     * are joined back together on the way up, which takes O(lg n) time. The
+     * nodes of the subtree are reused, so it must not be used afterwards.
+     *
+     * @param node The root of the subtree to split
+     * @param key The key value to split around
+     * @return the subtrees of smaller and larger keys, and the key's node
+     */
+    AvlSplit split(AvlNode node, int key) {
+        
+        //increase comparison counter
+        countComparison();
+        
+        if(node == null) {
+            return new AvlSplit(null, null, null);
+        } else if(key < node.key) {
+            AvlSplit split = split(node.left, key);
+            split.right = join(split.right, node, node.right);
+            return split;
+        } else if(key > node.key) {
+            AvlSplit split = split(node.right, key);
+            split.left = join(node.left, node, split.left);
+            return split;
+        }
+        
+        //key found, so its children become the two halves
+        return new AvlSplit(node.left, node, node.right);
+        
+    }
+    
+    /**
+     * A method to split the tree around a key value into a tree of the keys
+     * smaller than it and a tree of the rest, in O(lg n) time. The path to
+     * the key is followed down and the subtrees hanging off either side are
+     * joined back together on the way up, rebalancing with rotations as an
+     * insert does. The nodes of this tree are reused, so it is left empty.
+     *
+     * @param key The key value to split around
+     * @return a tree of the keys smaller than key, then a tree of the keys
+     * not smaller than key
+     */
+    public AvlTree[] split(int key) {
+        
+        flushPending();
+        
+        AvlSplit parts = split(root, key);
+        
+        //a node equal to key goes back on the right
+        AvlNode right = parts.found == null ? parts.right
+                                            : join(null, parts.found, parts.right);
+        
+        AvlTree[] trees = { subtree(parts.left), subtree(right) };
+        
+        //this tree no longer owns its nodes
+        root = null;
+        size = 0;
+        
+        return trees;
+        
+    }
+    
+    /**
+     * A method to concatenate two AVL trees whose ranges of values do not
+     * overlap, every key of the left tree being smaller than every key of
+     * the right, in O(lg n) time. The smallest node of the right tree is
+     * taken out and the shorter tree is joined along the spine of the taller
+     * one around it, without sorting either tree into an array. The nodes of
+     * both trees are reused, so both are left empty.
+     *
+     * @param left The tree of smaller keys
+     * @param right The tree of larger keys
+     * @return The concatenated AVL tree
+     * @throws IllegalArgumentException if a key of left is not smaller than
+     * every key of right
+     */
+    public static AvlTree concat(AvlTree left, AvlTree right) {
+        
+        left.flushPending();
+        right.flushPending();
+        
+        if(left.root != null && right.root != null && left.max() >= right.min()) {
+            throw new IllegalArgumentException("ranges of trees overlap");
+        }
+        
+        MergePlan plan = new MergePlan(MergeStrategy.CONCAT, left.size, right.size, 0, 0,
+                                       height(left.root) + height(right.root));
+        
+        return mergeTrees(left, right, plan);
+        
+    }
+    
+    /* A helper function to wrap a subtree as a tree of its own, sharing this
+     * tree's metrics and multiset mode.
+     */
+    private AvlTree subtree(AvlNode node) {
+        
+        AvlTree tree = new AvlTree();
+        tree.metrics = metrics;
+        tree.multiset = multiset;
+        tree.root = node;
+        tree.size = size(node);
+        
+        return tree;
+        
+    }
+    
+    /**
+     * A method to insert a batch of key values, sorted in ascending order
+     * without repeated values, into the tree. Rather than descending from
+     * the root once per key, the batch is routed down the tree as a whole:
+     * at each node it is divided by binary search into the keys that belong
+     * to the left and right subtrees, which are inserted recursively, and the
+     * two updated subtrees are joined back around the node. A part of the
+     * batch that reaches an empty subtree is built directly into a balanced
+     * subtree. Each touched node is rebalanced once, by the join, so this
+     * takes O(m lg(n/m + 1)) time for a batch of m keys and a tree of n.
+     *
+     * When the batch is large compared to the tree, the tree is instead
+     * sorted into an array, merged with the batch and rebuilt in O(m+n) time.
+     *
+     * In a multiset tree, repeated keys in the batch are first collapsed
+     * into counts, which are added to the counts of keys already in the tree.
+     *
+     * @param sortedBatch The key values to insert, in ascending order
+     */
+    public void insertAll(int[] sortedBatch) {
+        
+        flushPending();
+        
+        if(sortedBatch.length == 0) {
+            return;
+        }
+        
+        //increase comparison counter
+        countComparison();
+        
+        int[] batch = sortedBatch;
+        int[] counts = null;
+        int length = sortedBatch.length;
+        
+        //in a multiset tree, collapse repeated batch keys into counts
+        if(multiset) {
+            batch = new int[length];
+            counts = new int[length];
+            length = mergeSortedCounts(sortedBatch, null, sortedBatch.length,
+                                       sortedBatch, null, 0,
+                                       batch, counts, metrics);
+        }
+        
+        //flatten, merge and rebuild if batch is large compared to tree
+        if((long) length * BATCH_REBUILD_RATIO >= size) {
+            
+            int[] treeArray = treeToArray();
+            int[] mergeArray = new int[treeArray.length + length];
+            int[] mergeCounts = null;
+            int mergeLength;
+            
+            if(multiset) {
+                mergeCounts = new int[mergeArray.length];
+                mergeLength = mergeSortedCounts(treeArray, countsToArray(), treeArray.length,
+                                                batch, counts, length,
+                                                mergeArray, mergeCounts, metrics);
+            } else {
+                mergeLength = mergeSortedArrays(treeArray, treeArray.length,
+                                                batch, length,
+                                                mergeArray, metrics);
+            }
+            
+            //rebuild as in the array constructor
+            root = buildTree(mergeArray, mergeCounts, 0, mergeLength - 1);
+            size = size(root);
+            
+            return;
+            
+        }
+        
+        root = insertRange(root, batch, counts, 0, length - 1);
+        size = size(root);
+        
+    }
+    
+    /* A helper function, called recursively, to insert the keys of a sorted
+     * batch from index beg to end into a subtree. The batch is divided around
+     * the node's key, each half is inserted into the matching child, and the
+     * children are joined back around the node. Returns the new subtree root.
+     * The batch's counts, unless null, are given to new nodes or added to the
+     * count of a node with the same key.
+     */
+    private AvlNode insertRange(AvlNode node, int[] batch, int[] counts,
+                                int beg, int end) {
+        
+        //nothing left to insert here
+        if(beg > end) {
+            return node;
+        }
+        
+        //empty subtree is replaced by a balanced subtree of the remaining keys
+        if(node == null) {
+            return buildTree(batch, counts, beg, end);
+        }
+        
+        //find the first batch key not smaller than node's key
+        int low = lowerBound(batch, beg, end, node.key);
+        
+        //skip a batch key equal to node's key, adding its count if counted
+        int rightBeg = low;
+        
+        if(rightBeg <= end && batch[rightBeg] == node.key) {
+            if(counts != null) {
+                node = addCount(node, counts[rightBeg]);
+            }
+            rightBeg++;
+        }
+        
+        //insert each part into its child, then rebalance once with a join
+        AvlNode left = insertRange(node.left, batch, counts, beg, low - 1);
+        AvlNode right = insertRange(node.right, batch, counts, rightBeg, end);
+        
+        return join(left, node, right);
+        
+    }
+    
+    /* A helper function to binary search a sorted batch from index beg to
+     * end for the first key not smaller than key. Returns end + 1 if every
+     * key is smaller.
+     */
+    private int lowerBound(int[] batch, int beg, int end, int key) {
+        
+        int low = beg;
+        int high = end + 1;
+        
+        while(low < high) {
+            
+            //increase comparison counter
+            countComparison();
+            
+            int middle = low + (high - low) / 2;
+            
+            if(batch[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+            
+        }
+        
+        return low;
+        
+    }
+    
+    /* A helper function to delete a key value from the subtree at node,
+     * returning the updated subtree. After the node is removed, the method
+     * bubbles back up the path of the delete, rotating nodes as necessary to
+     * keep the tree balanced. A node with two children is replaced by its
+     * successor, the smallest node of its right subtree. In a multiset tree,
+     * a key counted more than once only has its count decreased. It does not
+     * flush deferred keys, so only callers that have already flushed may use
+     * it.
+     */
+    private AvlNode delete(AvlNode node, int key) {
+        
+        //increase comparison counter
+        countComparison();
+        
+        //key not found
+        if(node == null) {
+            return null;
+        }
+        
+        if(node.key > key) {
+            node.left = delete(node.left, key);
+        } else if(node.key < key) {
+            node.right = delete(node.right, key);
+        } else {
+            
+            //a repeated key of a multiset tree loses one occurrence
+            if(count(node) > 1) {
+                ((CountedAvlNode) node).count--;
+                return node;
+            }
+            
+            //decrease size of tree
+            size--;
+            
+            //a missing child lets the other take the node's place
+            if(node.left == null) {
+                return node.right;
+            } else if(node.right == null) {
+                return node.left;
+            }
+            
+            //move successor into the node's place
+            AvlNode successor = node.right;
+            
+            while(successor.left != null) {
+                successor = successor.left;
+            }
+            
+            successor.right = deleteMin(node.right);
+            successor.left = node.left;
+            node = successor;
+            
+        }
+        
+        return rebalance(node);
+        
+    }
+    
+    /**
+     * A method to delete a key value from the tree.
+     *
+     * @param key The key value to delete
+     */
+    public void delete(int key) {
+        
+        flushPending();
+        
+        root = delete(root, key);
+        
+    }
+    
+    /* A helper function, called recursively, to unlink the smallest node of
+     * a subtree, rebalancing back up the left spine. Returns the new root of
+     * the subtree; the unlinked node itself is left untouched.
+     */
+    private AvlNode deleteMin(AvlNode node) {
+        
+        if(node.left == null) {
+            return node.right;
+        }
+        
+        node.left = deleteMin(node.left);
+        
+        return rebalance(node);
+        
+    }
+    
+    /* A helper function to join two subtrees, every key on the left smaller
+     * than every key on the right, with no middle node. The smallest node of
+     * the right subtree is unlinked and used as the middle node.
+     */
+    private AvlNode join(AvlNode left, AvlNode right) {
+        
+        if(right == null) {
+            return left;
+        }
+        
+        AvlNode middle = right;
+        
+        while(middle.left != null) {
+            middle = middle.left;
+        }
+        
+        return join(left, middle, deleteMin(right));
+        
+    }
+    
+    /**
+     * A method to delete a batch of key values, sorted in ascending order
+     * without repeated values, from the tree. As in insertAll, the batch is
+     * routed down the tree as a whole and each touched subtree is joined
+     * back together once; a node whose key is in the batch is left out of
+     * the join. When the batch is large compared to the tree, the tree is
+     * instead sorted into an array, the batch's keys are removed with two
+     * pointers and the tree is rebuilt in O(m+n) time.
+     *
+     * In a multiset tree each batch key removes one occurrence, as delete
+     * does, and repeated batch keys are allowed.
+     *
+     * @param sortedBatch The key values to delete, in ascending order
+     */
+    public void deleteAll(int[] sortedBatch) {
+        
+        flushPending();
+        
+        if(sortedBatch.length == 0 || root == null) {
+            return;
+        }
+        
+        //counts of a multiset tree are decreased one key at a time
+        if(multiset) {
+            
+            for(int i = 0; i < sortedBatch.length; i++) {
+                root = delete(root, sortedBatch[i]);
+            }
+            
+            return;
+            
+        }
+        
+        //increase comparison counter
+        countComparison();
+        
+        //flatten, filter and rebuild if batch is large compared to tree
+        if((long) sortedBatch.length * BATCH_REBUILD_RATIO >= size) {
+            
+            int[] treeArray = treeToArray();
+            int[] keepArray = new int[treeArray.length];
+            int length = differenceSortedArrays(treeArray, treeArray.length,
+                                                sortedBatch, sortedBatch.length,
+                                                keepArray, metrics);
+            
+            //rebuild as in the array constructor
+            root = length == 0 ? null : buildTree(keepArray, 0, length - 1);
+            size = size(root);
+            
+            return;
+            
+        }
+        
+        root = deleteRange(root, sortedBatch, 0, sortedBatch.length - 1);
+        size = size(root);
+        
+    }
+    
+    /* A helper function, called recursively, to delete the keys of a sorted
+     * batch from index beg to end from a subtree, dividing the batch around
+     * the node's key as insertRange does. Returns the new subtree root.
+     */
+    private AvlNode deleteRange(AvlNode node, int[] batch, int beg, int end) {
+        
+        //nothing left to delete here
+        if(beg > end || node == null) {
+            return node;
+        }
+        
+        //find the first batch key not smaller than node's key
+        int low = lowerBound(batch, beg, end, node.key);
+        boolean found = low <= end && batch[low] == node.key;
+        
+        //delete each part from its child, then join, leaving out a found node
+        AvlNode left = deleteRange(node.left, batch, beg, low - 1);
+        AvlNode right = deleteRange(node.right, batch, found ? low + 1 : low, end);
+        
+        if(found) {
+            return join(left, right);
+        }
+        
+        return join(left, node, right);
+        
+    }
+    
+    /**
+     * A method for merging two AVL trees of size m and n. If the range of values
+     * in the AVL trees do not overlap, the method sorts each to an array, merges
+     * the arrays, and transforms the array back into an AVL tree in O(m+n) time.
+     * Otherwise, the smaller of the two trees is sorted into an array, and the
+     * elements of that array are inserted one by one into the other tree, which
+     * takes O(n lg(m + n)) time. If either tree is a multiset, the trees are
+     * merged by mergeTreesLinear instead, which adds the counts together. If
+     * either tree is empty, the other is returned unchanged.
+     *
+     * This is the main experimental method and third of three.
+     *
+     * @param tree1 The first tree to be merged
+     * @param tree2 The second tree to be merged
+     * @return The merged AVL tree
+     */
+    public static AvlTree mergeTrees(AvlTree tree1, AvlTree tree2) {
+    
+        tree1.flushPending();
+        tree2.flushPending();
+        
+        //start flight recorder event, recording sizes before the merge
+        AvlMergeEvent event = new AvlMergeEvent();
+        event.begin();
+        event.size1 = tree1.size;
+        event.size2 = tree2.size;
+        
+        //an empty tree leaves the other unchanged, its range overlapping none
+        if(tree1.root == null) {
+            return recordMerge(event, MergeStrategy.DISJOINT, tree2);
+        } else if(tree2.root == null) {
+            return recordMerge(event, MergeStrategy.DISJOINT, tree1);
+        }
+        
+        //counts are only added together by the linear merge, which records
+        //its own event
+        if(tree1.multiset || tree2.multiset) {
+            return mergeTreesLinear(tree1, tree2);
+        }
+        
+        //increase comparison counter
+        tree1.countComparison();
+        
+        //check if tree conditions are right for simple sorted array merge
+        if(tree1.max() < tree2.min() || tree2.max() < tree1.min()) {
+        
+            //initialize returnArray and index counter
+            int[] mergeArray = new int[tree1.size + tree2.size];
+            int index = 0;
+            
+            int[] tree1Array = tree1.treeToArray();
+            int[] tree2Array = tree2.treeToArray();
+            
+            for(int i = 0; i < tree1Array.length; i++) {
+                //increase comparison counter
+                tree1.countComparison();
+            
+                //copy tree1 to returnArray
+                mergeArray[i] = tree1Array[i];
+                index++;
+            }
+            
+            for(int i = 0; i < tree2Array.length; i++) {
+                //increase comparison counter
+                tree1.countComparison();
+                
+                //copy tree2 to returnArray
+                mergeArray[i + index] = tree2Array[i];
+            }
+            
+            //return tree built from mergeArray
+            AvlTree merged = new AvlTree(mergeArray, mergeArray.length, tree1.metrics);
+            
+            return recordMerge(event, MergeStrategy.DISJOINT, merged);
+            
+        }
+        
+        //otherwise find smaller of two trees and insert element by element
+        AvlTree smaller;
+        AvlTree larger;
+        
+        //increase comparison counter
+        tree1.countComparison();
+        
+        //find smaller and larger of trees
+        if(tree1.size < tree2.size) {
+            smaller = tree1;
+            larger = tree2;
+        } else {
+            smaller = tree2;
+            larger = tree1;
+        }
+        
+        //sort smaller tree into array
+        int[] insertArray = smaller.treeToArray();
+        
+        //insert smaller tree's elements into larger tree
+        for(int i = 0; i < insertArray.length; i++) {
+        
+            larger.root = larger.insert(larger.root, insertArray[i]);
+        
+        }
+    
+        //return completely merged tree
+        return recordMerge(event, MergeStrategy.INSERT, larger);
+    
+    }
+    
+    /**
+     * A method for merging two AVL trees of size m and n in O(m+n) time
+     * regardless of whether their ranges of values overlap. Both trees are
+     * sorted into arrays, the arrays are merged with two pointers (keeping
+     * a single copy of any value found in both trees), and the merged array
+     * is transformed back into an AVL tree with the divide and conquer
+     * constructor. Neither input tree is modified.
+     *
+     * If either tree is a multiset, the merged tree is a multiset in which
+     * the count of each key is the sum of its counts in the two trees.
+     *
+     * This avoids the O(n lg(m + n)) insert path of mergeTrees, and the
+     * rotations it performs, when the trees are interleaved.
+     *
+     * @param tree1 The first tree to be merged
+     * @param tree2 The second tree to be merged
+     * @return The merged AVL tree
+     */
+    public static AvlTree mergeTreesLinear(AvlTree tree1, AvlTree tree2) {
+        
+        tree1.flushPending();
+        tree2.flushPending();
+        
+        AvlMergeEvent event = new AvlMergeEvent();
+        event.begin();
+        event.size1 = tree1.size;
+        event.size2 = tree2.size;
+        
+        //sort both trees into arrays
+        int[] tree1Array = tree1.treeToArray();
+        int[] tree2Array = tree2.treeToArray();
+        
+        int[] mergeArray = new int[tree1Array.length + tree2Array.length];
+        AvlTree merged;
+        
+        if(tree1.multiset || tree2.multiset) {
+            
+            //merge arrays, adding counts of keys found in both trees
+            int[] mergeCounts = new int[mergeArray.length];
+            int length = mergeSortedCounts(tree1Array, tree1.countsToArray(), tree1Array.length,
+                                           tree2Array, tree2.countsToArray(), tree2Array.length,
+                                           mergeArray, mergeCounts, tree1.metrics);
+            
+            merged = new AvlTree(mergeArray, mergeCounts, length, tree1.metrics);
+            
+        } else {
+            
+            //merge arrays, dropping duplicates
+            int length = mergeSortedArrays(tree1Array, tree1Array.length,
+                                           tree2Array, tree2Array.length,
+                                           mergeArray, tree1.metrics);
+            
+            //return tree built from the filled part of mergeArray
+            merged = new AvlTree(mergeArray, length, tree1.metrics);
+            
+        }
+        
+        return recordMerge(event, MergeStrategy.LINEAR, merged);
+        
+    }
+    
+    /**
+     * A method to choose how to merge two AVL trees of size m and n, without
+     * changing them, in O(lg(m + n)) time. The range shared by both trees,
+     * from the larger minimum to the smaller maximum, is found, and the keys
+     * of each tree in it are counted using subtree sizes. Trees whose ranges
+     * do not overlap are concatenated by a join. Otherwise the estimated cost
+     * of three strategies is compared: a linear flatten, merge and rebuild,
+     * in O(m+n); inserting the smaller tree key by key, in O(m lg n); and
+     * splicing, which splits the shared range out of both trees, merges only
+     * those keys, and joins the pieces back together. Splicing costs little
+     * more than O(lg n) when the trees barely overlap, such as when a single
+     * key falls in the other tree's range.
+     *
+     * Multiset trees are never merged key by key, since an insert adds a
+     * single occurrence rather than a key's count.
+     *
+     * @param tree1 The first tree to be merged
+     * @param tree2 The second tree to be merged
+     * @return the chosen strategy and its estimated cost
+     */
+    public static MergePlan planMerge(AvlTree tree1, AvlTree tree2) {
+        
+        tree1.flushPending();
+        tree2.flushPending();
+        
+        int size1 = tree1.size;
+        int size2 = tree2.size;
+        
+        //an empty tree is concatenated for nothing
+        if(tree1.root == null || tree2.root == null) {
+            return new MergePlan(MergeStrategy.CONCAT, size1, size2, 0, 0, 0);
+        }
+        
+        int height1 = height(tree1.root);
+        int height2 = height(tree2.root);
+        
+        //count keys of each tree in the shared range
+        int lo = Math.max(tree1.min(), tree2.min());
+        int hi = Math.min(tree1.max(), tree2.max());
+        int overlap1 = tree1.countInRange(lo, hi);
+        int overlap2 = tree2.countInRange(lo, hi);
+        
+        //no shared range, so join along the spine of the taller tree
+        if(overlap1 == 0 && overlap2 == 0) {
+            return new MergePlan(MergeStrategy.CONCAT, size1, size2, 0, 0,
+                                 height1 + height2);
+        }
+        
+        boolean multiset = tree1.multiset || tree2.multiset;
+        
+        //linear merge is the fallback
+        MergeStrategy strategy = MergeStrategy.LINEAR;
+        long cost = linearCost(size1, size2);
+        
+        //splitting out and joining back costs a few descents of each tree
+        long spliceCost = 2L * (height1 + height2) + overlapCost(overlap1, overlap2, multiset);
+        
+        if(spliceCost < cost) {
+            strategy = MergeStrategy.SPLICE;
+            cost = spliceCost;
+        }
+        
+        //inserting descends the larger tree once per key of the smaller
+        if(!multiset) {
+            
+            long insertCost = size1 < size2 ? insertCost(size1, height2)
+                                            : insertCost(size2, height1);
+            
+            if(insertCost < cost) {
+                strategy = MergeStrategy.INSERT;
+                cost = insertCost;
+            }
+            
+        }
+        
+        return new MergePlan(strategy, size1, size2, overlap1, overlap2, cost);
+        
+    }
+    
+    /**
+     * A method for merging two AVL trees with the strategy chosen by
+     * planMerge, giving the same keys as mergeTrees. The nodes of both trees
+     * may be reused in the merged tree, so both inputs are left empty.
+     *
+     * @param tree1 The first tree to be merged
+     * @param tree2 The second tree to be merged
+     * @param plan The plan made by planMerge for these two trees
+     * @return The merged AVL tree
+     * @throws IllegalArgumentException if the plan concatenates trees whose
+     * ranges overlap
+     */
+    public static AvlTree mergeTrees(AvlTree tree1, AvlTree tree2, MergePlan plan) {
+        
+        tree1.flushPending();
+        tree2.flushPending();
+        
+        AvlMergeEvent event = new AvlMergeEvent();
+        event.begin();
+        event.size1 = tree1.size;
+        event.size2 = tree2.size;
+        
+        AvlTree merged = new AvlTree();
+        merged.metrics = tree1.metrics;
+        merged.multiset = tree1.multiset || tree2.multiset;
+        
+        MergeStrategy strategy = plan.strategy();
+        
+        if(tree1.root == null || tree2.root == null) {
+            
+            //an empty tree leaves the other unchanged
+            merged.root = tree1.root == null ? tree2.root : tree1.root;
+            
+        } else if(strategy == MergeStrategy.CONCAT) {
+            
+            //order trees by range, then join with no key in between
+            AvlTree lower = tree1.min() < tree2.min() ? tree1 : tree2;
+            AvlTree upper = lower == tree1 ? tree2 : tree1;
+            
+            if(lower.max() >= upper.min()) {
+                throw new IllegalArgumentException("ranges of trees overlap");
+            }
+            
+            merged.root = merged.join(lower.root, upper.root);
+            
+        } else if(strategy == MergeStrategy.SPLICE) {
+            
+            //split the shared range out of both trees
+            int lo = Math.max(tree1.min(), tree2.min());
+            int hi = Math.min(tree1.max(), tree2.max());
+            AvlSplit parts1 = merged.splitRange(tree1.root, lo, hi);
+            AvlSplit parts2 = merged.splitRange(tree2.root, lo, hi);
+            
+            //keys below and above the shared range come from one tree each
+            AvlNode below = parts1.left != null ? parts1.left : parts2.left;
+            AvlNode above = parts1.right != null ? parts1.right : parts2.right;
+            AvlNode middle = merged.mergeSubtrees(parts1.found, parts2.found);
+            
+            merged.root = merged.join(merged.join(below, middle), above);
+            
+        } else if(strategy == MergeStrategy.INSERT) {
+            
+            //insert the smaller tree's keys into the larger
+            if(tree1.size < tree2.size) {
+                merged.root = merged.insertSubtree(tree2.root, tree1.root);
+            } else {
+                merged.root = merged.insertSubtree(tree1.root, tree2.root);
+            }
+            
+        } else {
+            
+            merged.root = merged.mergeSubtreesLinear(tree1.root, tree2.root);
+            strategy = MergeStrategy.LINEAR;
+            
+        }
+        
+        merged.size = size(merged.root);
+        
+        //inputs no longer own their nodes
+        tree1.root = null;
+        tree1.size = 0;
+        tree2.root = null;
+        tree2.size = 0;
+        
+        return recordMerge(event, strategy, merged);
+        
+    }
+    
+    /**
+     * A method for merging two AVL trees with the cheapest strategy found by
+     * planMerge. Both inputs are left empty.
+     *
+     * @param tree1 The first tree to be merged
+     * @param tree2 The second tree to be merged
+     * @return The merged AVL tree
+     */
+    public static AvlTree mergeAdaptive(AvlTree tree1, AvlTree tree2) {
+        
+        tree1.flushPending();
+        tree2.flushPending();
+        
+        return mergeTrees(tree1, tree2, planMerge(tree1, tree2));
+        
+    }
+    
+    /* A helper function to estimate the cost of merging m and n keys by
+     * flattening, merging and rebuilding.
+     */
+    private static long linearCost(int size1, int size2) {
+        
+        return (long) LINEAR_KEY_COST * (size1 + size2);
+        
+    }
+    
+    /* A helper function to estimate the cost of inserting a number of keys
+     * one by one into a tree of the given height.
+     */
+    private static long insertCost(int keys, int height) {
+        
+        return (long) keys * (height + 1);
+        
+    }
+    
+    /* A helper function to estimate the cost of merging the keys of two trees
+     * in their shared range, as mergeSubtrees does. Nothing needs merging if
+     * either tree has no keys there.
+     */
+    private static long overlapCost(int overlap1, int overlap2, boolean multiset) {
+        
+        if(overlap1 == 0 || overlap2 == 0) {
+            return 0;
+        }
+        
+        long cost = linearCost(overlap1, overlap2);
+        
+        if(!multiset) {
+            cost = Math.min(cost, insertCost(Math.min(overlap1, overlap2),
+                                             balancedHeight(Math.max(overlap1, overlap2))));
+        }
+        
+        return cost;
+        
+    }
+    
+    /* A helper function to return the height of a complete tree of n keys.
+     */
+    private static int balancedHeight(int n) {
+        
+        return 32 - Integer.numberOfLeadingZeros(n);
+        
+    }
+    
+    /* A helper function to split a subtree into the keys below lo, the keys
+     * from lo to hi and the keys above hi, returned as the left, found and
+     * right subtrees of the split. Takes O(lg n) time.
+     */
+    private AvlSplit splitRange(AvlNode node, int lo, int hi) {
+        
+        //split off keys below lo, putting a node equal to lo back on the rest
+        AvlSplit low = split(node, lo);
+        AvlNode rest = low.found == null ? low.right : join(null, low.found, low.right);
+        
+        //split off keys above hi, putting a node equal to hi back on the range
+        AvlSplit high = split(rest, hi);
+        AvlNode range = high.found == null ? high.left : join(high.left, high.found, null);
+        
+        return new AvlSplit(low.left, range, high.right);
+        
+    }
+    
+    /* A helper function to merge two subtrees whose ranges may overlap,
+     * inserting the smaller subtree's keys into the larger when that is
+     * estimated to be cheaper than a linear merge. Returns the new root.
+     */
+    private AvlNode mergeSubtrees(AvlNode node1, AvlNode node2) {
+        
+        if(node1 == null) {
+            return node2;
+        } else if(node2 == null) {
+            return node1;
+        }
+        
+        int size1 = size(node1);
+        int size2 = size(node2);
+        
+        if(!multiset && insertCost(Math.min(size1, size2), balancedHeight(Math.max(size1, size2)))
+                        < linearCost(size1, size2)) {
+            return size1 < size2 ? insertSubtree(node2, node1) : insertSubtree(node1, node2);
+        }
+        
+        return mergeSubtreesLinear(node1, node2);
+        
+    }
+    
+    /* A helper function to insert the keys of one subtree, one by one, into
+     * another. Returns the new root of the larger subtree.
+     */
+    private AvlNode insertSubtree(AvlNode larger, AvlNode smaller) {
+        
+        int[] insertArray = new int[size(smaller)];
+        sortTree(smaller, insertArray, 0);
+        
+        for(int i = 0; i < insertArray.length; i++) {
+            larger = insert(larger, insertArray[i]);
+        }
+        
+        return larger;
+        
+    }
+    
+    /* A helper function to merge two subtrees by sorting both into arrays,
+     * merging the arrays with two pointers and building a new subtree, adding
+     * counts together in a multiset tree. Returns the new root.
+     */
+    private AvlNode mergeSubtreesLinear(AvlNode node1, AvlNode node2) {
+        
+        int size1 = size(node1);
+        int size2 = size(node2);
+        
+        int[] array1 = new int[size1];
+        int[] array2 = new int[size2];
+        int[] mergeArray = new int[size1 + size2];
+        int[] mergeCounts = null;
+        int length;
+        
+        if(multiset) {
+            
+            int[] counts1 = new int[size1];
+            int[] counts2 = new int[size2];
+            sortTree(node1, array1, counts1, 0);
+            sortTree(node2, array2, counts2, 0);
+            
+            mergeCounts = new int[mergeArray.length];
+            length = mergeSortedCounts(array1, counts1, size1, array2, counts2, size2,
+                                       mergeArray, mergeCounts, metrics);
+            
+        } else {
+            
+            sortTree(node1, array1, 0);
+            sortTree(node2, array2, 0);
+            
+            length = mergeSortedArrays(array1, size1, array2, size2, mergeArray, metrics);
+            
+        }
+        
+        return length == 0 ? null : buildTree(mergeArray, mergeCounts, 0, length - 1);
+        
+    }
+    
+    /**
+     * A method for merging any number of AVL trees of N keys in all into a
+     * single tree in O(N lg k) time for k trees. Rather than merging pairs of
+     * trees and rebuilding each intermediate tree, every tree's keys are
+     * streamed in sorted order by an iterator, and a binary min-heap of the
+     * next key of each tree picks the smallest remaining key. The keys are
+     * written once into a single array, keeping one copy of a key found in
+     * several trees, and the merged tree is built from it with the divide and
+     * conquer constructor. No input tree is modified.
+     *
+     * If any tree is a multiset, the merged tree is a multiset in which the
+     * count of each key is the sum of its counts in all the trees. The merged
+     * tree counts its operations in the first tree's metrics.
+     *
+     * @param trees The trees to be merged
+     * @return The merged AVL tree
+     */
+    public static AvlTree mergeAll(List<AvlTree> trees) {
+        
+        for(AvlTree tree : trees) {
+            tree.flushPending();
+        }
+        
+        if(trees.isEmpty()) {
+            return new AvlTree();
+        }
+        
+        AvlMetrics metrics = trees.get(0).metrics;
+        
+        //record first tree's size and combined size of the others
+        AvlMergeEvent event = new AvlMergeEvent();
+        event.begin();
+        event.size1 = trees.get(0).size;
+        
+        //start an iterator on each nonempty tree and heap its smallest key
+        int k = trees.size();
+        AvlIntIterator[] iterators = new AvlIntIterator[k];
+        AvlNode[] current = new AvlNode[k];
+        int[] heapKeys = new int[k];
+        int[] heapSources = new int[k];
+        int heapSize = 0;
+        int total = 0;
+        boolean multiset = false;
+        
+        for(int i = 0; i < k; i++) {
+            
+            AvlTree tree = trees.get(i);
+            total += tree.size;
+            multiset |= tree.multiset;
+            
+            if(tree.root != null) {
+                iterators[i] = tree.iterator();
+                current[i] = iterators[i].nextNode();
+                heapKeys[heapSize] = current[i].key;
+                heapSources[heapSize++] = i;
+            }
+            
+        }
+        
+        event.size2 = total - event.size1;
+        
+        long comparisons = 0;
+        
+        for(int i = heapSize / 2 - 1; i >= 0; i--) {
+            comparisons += siftDown(heapKeys, heapSources, heapSize, i);
+        }
+        
+        int[] mergeArray = new int[total];
+        int[] mergeCounts = multiset ? new int[total] : null;
+        int index = 0;
+        
+        while(heapSize > 0) {
+            
+            int source = heapSources[0];
+            AvlNode node = current[source];
+            
+            //write smallest key, or add to its count if just written
+            if(index > 0 && mergeArray[index - 1] == node.key) {
+                if(multiset) {
+                    mergeCounts[index - 1] += count(node);
+                }
+            } else {
+                mergeArray[index] = node.key;
+                if(multiset) {
+                    mergeCounts[index] = count(node);
+                }
+                index++;
+            }
+            
+            //replace with next key of the same tree, or drop a finished tree
+            if(iterators[source].hasNext()) {
+                current[source] = iterators[source].nextNode();
+                heapKeys[0] = current[source].key;
+            } else {
+                heapSize--;
+                heapKeys[0] = heapKeys[heapSize];
+                heapSources[0] = heapSources[heapSize];
+            }
+            
+            comparisons += siftDown(heapKeys, heapSources, heapSize, 0);
+            
+        }
+        
+        //increase comparison counter by number of heap comparisons
+        if(metrics != null) {
+            metrics.comparisons.add(comparisons);
+        }
+        
+        //build once from the filled part of mergeArray
+        AvlTree merged = new AvlTree(mergeArray, mergeCounts, index, metrics);
+        
+        return recordMerge(event, MergeStrategy.K_WAY, merged);
+        
+    }
+    
+    /* A helper function to move the key at an index of a binary min-heap
+     * down until neither child is smaller, moving its source tree with it.
+     * Returns the number of key comparisons made.
+     */
+    private static int siftDown(int[] heapKeys, int[] heapSources, int heapSize,
+                                int index) {
+        
+        int key = heapKeys[index];
+        int source = heapSources[index];
+        int comparisons = 0;
+        int child = 2 * index + 1;
+        
+        while(child < heapSize) {
+            
+            //pick the smaller child
+            if(child + 1 < heapSize) {
+                comparisons++;
+                if(heapKeys[child + 1] < heapKeys[child]) {
+                    child++;
+                }
+            }
+            
+            comparisons++;
+            
+            if(heapKeys[child] >= key) {
+                break;
+            }
+            
+            //move child up into the hole
+            heapKeys[index] = heapKeys[child];
+            heapSources[index] = heapSources[child];
+            index = child;
+            child = 2 * index + 1;
+            
+        }
         
-        //initialize root using helper to find correct (balanced) value
-        root = buildTree(data, 0, data.length - 1);
+        heapKeys[index] = key;
+        heapSources[index] = source;
+        
+        return comparisons;
         
-        //calculate height
-        root.height = Math.max(height(root.left), height(root.right)) + 1;
-    
     }
     
-    /* a helper function, called recursively, to build an AVL tree from an
-     * array of integers. It takes the middle value of the sorted array,
-     * assigns it to a node, then calls itself on the left half of the array
-     * and the right half of the arrary until each value is assigned a node.
-     * Since each value is visited once, this takes O(n) time.
+    /**
+     * A method for intersecting two AVL trees of size m and n in O(m+n)
+     * time. Both trees are sorted into arrays, the keys found in both are
+     * collected with two pointers, and the result is transformed back into an
+     * AVL tree with the divide and conquer constructor. Neither input tree
+     * is modified.
+     *
+     * If either tree is a multiset, so is the result, and the count of each
+     * key is the smaller of its counts in the two trees.
+     *
+     * @param tree1 The first tree
+     * @param tree2 The second tree
+     * @return a tree of the keys in both trees
      */
-    private AvlNode buildTree(int[] data, int beg, int end) {
+    public static AvlTree intersect(AvlTree tree1, AvlTree tree2) {
         
-        //find middle of subarray
-        int middle = beg + (end - beg) / 2;
+        tree1.flushPending();
+        tree2.flushPending();
         
-        //create node from middle value
-        AvlNode node = new AvlNode( data[middle] );
+        int[] tree1Array = tree1.treeToArray();
+        int[] tree2Array = tree2.treeToArray();
         
-        //increase comparison count
-        comparisonCount++;
+        int[] resultArray = new int[Math.min(tree1Array.length, tree2Array.length)];
         
-        //assign remaining values to left and right subtrees
-        if(beg < middle) {
+        if(tree1.multiset || tree2.multiset) {
             
-            size++;
-            node.left = buildTree(data, beg, middle - 1);
+            //keep the smaller count of each key found in both trees
+            int[] resultCounts = new int[resultArray.length];
+            int length = intersectSortedCounts(tree1Array, tree1.countsToArray(), tree1Array.length,
+                                               tree2Array, tree2.countsToArray(), tree2Array.length,
+                                               resultArray, resultCounts, tree1.metrics);
+            
+            return new AvlTree(resultArray, resultCounts, length, tree1.metrics);
             
         }
         
-        //increase comparison count
-        comparisonCount++;
+        int length = intersectSortedArrays(tree1Array, tree1Array.length,
+                                           tree2Array, tree2Array.length,
+                                           resultArray, tree1.metrics);
         
-        if(middle < end) {
+        return new AvlTree(resultArray, length, tree1.metrics);
+        
+    }
+    
+    /**
+     * A method for taking the difference of two AVL trees of size m and n in
+     * O(m+n) time, in the same way as intersect. Neither input tree is
+     * modified.
+     *
+     * If either tree is a multiset, so is the result. The count of each key
+     * is its count in tree1 less its count in tree2, and keys left with no
+     * occurrences are dropped.
+     *
+     * @param tree1 The tree whose keys are kept
+     * @param tree2 The tree whose keys are removed
+     * @return a tree of the keys in tree1 but not in tree2
+     */
+    public static AvlTree difference(AvlTree tree1, AvlTree tree2) {
+        
+        tree1.flushPending();
+        tree2.flushPending();
+        
+        int[] tree1Array = tree1.treeToArray();
+        int[] tree2Array = tree2.treeToArray();
+        
+        int[] resultArray = new int[tree1Array.length];
+        
+        if(tree1.multiset || tree2.multiset) {
             
-            size++;
-            node.right = buildTree(data, middle + 1, end);
+            //subtract the counts of tree2, keeping keys left with any
+            int[] resultCounts = new int[resultArray.length];
+            int length = differenceSortedCounts(tree1Array, tree1.countsToArray(), tree1Array.length,
+                                                tree2Array, tree2.countsToArray(), tree2Array.length,
+                                                resultArray, resultCounts, tree1.metrics);
+            
+            return new AvlTree(resultArray, resultCounts, length, tree1.metrics);
             
         }
         
-        //calcuate node's height
-        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        int length = differenceSortedArrays(tree1Array, tree1Array.length,
+                                            tree2Array, tree2Array.length,
+                                            resultArray, tree1.metrics);
         
-        //return complete node
-        return node;
+        return new AvlTree(resultArray, length, tree1.metrics);
         
     }
     
     /**
-     * A method to turn an AVL tree into a sorted array of integers. Using
-     * recursion, it goes in the order of left subtree, current node, right
-     * subtree. Since each node is visited once, this takes O(n) time.
+     * A method for merging two AVL trees of size m and n in parallel, using
+     * the split and join union algorithm. The root of the larger tree splits
+     * the smaller one, and the left and right halves are merged recursively
+     * as fork/join tasks on the common pool, then joined around the root.
+     * This takes O(m lg(n/m + 1)) work and polylogarithmic span, and gives
+     * the same set of keys as mergeTrees. If either tree is a multiset, so is
+     * the merged tree, and the counts of a key found in both are added.
      *
-     * This is the second of three experimental methods.
+     * The nodes of both input trees are reused in the merged tree, so both
+     * inputs are left empty.
      *
-     * @return a sorted integer array
-    */
-    public int[] treeToArray() {
+     * @param tree1 The first tree to be merged
+     * @param tree2 The second tree to be merged
+     * @return The merged AVL tree
+     */
+    public static AvlTree parallelUnion(AvlTree tree1, AvlTree tree2) {
         
-        //initalize return array using size of tree
-        int[] returnArray = new int[size];
+        tree1.flushPending();
+        tree2.flushPending();
         
-        //initialize index and call recursive function on root
-        arrayIndex = 0;
+        AvlMergeEvent event = new AvlMergeEvent();
+        event.begin();
+        event.size1 = tree1.size;
+        event.size2 = tree2.size;
         
-        sortTree(root, returnArray);
+        AvlTree merged = new AvlTree();
+        merged.metrics = tree1.metrics;
+        merged.multiset = tree1.multiset || tree2.multiset;
         
-        return returnArray;
+        //split by the larger tree's nodes, so the recursion is shallower
+        AvlUnionTask task;
+        
+        if(height(tree1.root) >= height(tree2.root)) {
+            task = new AvlUnionTask(merged, tree1.root, tree2.root);
+        } else {
+            task = new AvlUnionTask(merged, tree2.root, tree1.root);
+        }
+        
+        merged.root = ForkJoinPool.commonPool().invoke(task);
+        merged.size = size(merged.root);
+        
+        //inputs no longer own their nodes
+        tree1.root = null;
+        tree1.size = 0;
+        tree2.root = null;
+        tree2.size = 0;
+        
+        return recordMerge(event, MergeStrategy.PARALLEL_UNION, merged);
         
     }
     
-    /* A helper function to recursively store nodes of the tree in the array.
-     * The index keeps track of where each element should go in the array.
-     * The order is left child, node, right child, to successfully build
-     * a sorted array.
+    /* A helper function to count a finished merge under its strategy, and
+     * commit its flight recorder event if the event is enabled.
      */
-    private void sortTree(AvlNode node, int[] treeArray) {
+    private static AvlTree recordMerge(AvlMergeEvent event, MergeStrategy strategy,
+                                       AvlTree merged) {
         
-        //add 1 to comparison counter
-        comparisonCount++;
-        
-        //add left subtree to array
-        if(node.left != null) {
+        if(merged.metrics != null) {
+            merged.metrics.merges[strategy.ordinal()].increment();
+        }
         
-            sortTree(node.left, treeArray);
+        event.end();
         
+        if(event.shouldCommit()) {
+            event.strategy = strategy.name();
+            event.mergedSize = merged.size;
+            event.commit();
         }
         
-        //add this node's key value to array and increase index
-        treeArray[arrayIndex] = node.key;
-        arrayIndex++;
+        return merged;
+        
+    }
+    
+    /* A helper function to merge two sorted arrays into a third with two
+     * pointers, always copying the smaller of the two current values. When
+     * both current values are equal only one copy is kept. Returns the number
+     * of values written to the merge array, which is at most length1 + length2.
+     * Comparisons are added to the given metrics, if any, once at the end.
+     */
+    static int mergeSortedArrays(int[] array1, int length1,
+                                 int[] array2, int length2, int[] mergeArray,
+                                 AvlMetrics metrics) {
+        
+        int i = 0;
+        int j = 0;
+        int index = 0;
+        
+        //copy smaller current value until one array is exhausted
+        while(i < length1 && j < length2) {
+            
+            if(array1[i] < array2[j]) {
+                mergeArray[index++] = array1[i++];
+            } else if(array2[j] < array1[i]) {
+                mergeArray[index++] = array2[j++];
+            } else {
+                mergeArray[index++] = array1[i++];
+                j++;
+            }
+            
+        }
         
-        //add 1 to comparison counter
-        comparisonCount++;
+        //each step above wrote one value
+        int steps = index;
         
-        //add right subtree to array
-        if(node.right != null) {
+        //copy whatever remains of either array
+        while(i < length1) {
+            mergeArray[index++] = array1[i++];
+        }
         
-            sortTree(node.right, treeArray);
+        while(j < length2) {
+            mergeArray[index++] = array2[j++];
+        }
         
+        //increase comparison counter by number of two pointer steps
+        if(metrics != null) {
+            metrics.comparisons.add(steps);
         }
-    
+        
+        return index;
+        
     }
     
-    /**
-     * A method to insert a key value into the tree. After the new node is
-     * created, the method bubbles back up the path of the insert, to rotate
-     * nodes as necessary in order to maintain the balanced properties of the
-     * tree.
-     *
-     * @param node The node to test for insertion
-     * @param key The key value for the node
-     * @return the updated node
+    /* A helper function to merge two sorted arrays of keys, with matching
+     * arrays of counts, into a third with two pointers. Equal keys, whether
+     * found in both arrays or repeated within one, are written once with
+     * their counts added together. A null counts array counts each key once.
+     * Returns the number of keys written to the merge array.
      */
-    public AvlNode insert(AvlNode node, int key) {
+    static int mergeSortedCounts(int[] array1, int[] counts1, int length1,
+                                 int[] array2, int[] counts2, int length2,
+                                 int[] mergeArray, int[] mergeCounts,
+                                 AvlMetrics metrics) {
         
-        //increase comparison counter
-        comparisonCount++;
+        int i = 0;
+        int j = 0;
+        int index = 0;
         
-        //create new node if empty, otherwise send to right or left child
-        if(node == null) {
-            node = new AvlNode(key);
-            //increase size of tree
-            size++;
-            return node;
-        } else if(node.key > key) {
-            node.left = insert(node.left, key);
-        } else if(node.key < key) {
-            node.right = insert(node.right, key);
-        } else {
-            return node;
+        while(i < length1 || j < length2) {
+            
+            int key;
+            int count;
+            
+            //take the smaller current key
+            if(j == length2 || (i < length1 && array1[i] <= array2[j])) {
+                key = array1[i];
+                count = counts1 == null ? 1 : counts1[i];
+                i++;
+            } else {
+                key = array2[j];
+                count = counts2 == null ? 1 : counts2[j];
+                j++;
+            }
+            
+            //add to the last key written if equal, otherwise write it
+            if(index > 0 && mergeArray[index - 1] == key) {
+                mergeCounts[index - 1] += count;
+            } else {
+                mergeArray[index] = key;
+                mergeCounts[index++] = count;
+            }
+            
         }
         
-        //update height for all parent nodes
-        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        //increase comparison counter by number of two pointer steps
+        if(metrics != null) {
+            metrics.comparisons.add(i + j);
+        }
         
-        //check balance of children
-        int balance = balance(node);
+        return index;
         
-        //increase comparison counter
-        comparisonCount++;
+    }
+    
+    /* A helper function to copy the values found in both of two sorted
+     * arrays into a third, stepping past the smaller current value with two
+     * pointers. Returns the number of values written to the result array.
+     */
+    static int intersectSortedArrays(int[] array1, int length1,
+                                     int[] array2, int length2, int[] resultArray,
+                                     AvlMetrics metrics) {
         
-        //rebalance tree if unbalanced
+        int i = 0;
+        int j = 0;
+        int index = 0;
         
-        //two cases if tree is left heavy
-        if (balance < -1 && key < node.left.key) {
-            return rotateRight(node);
-        } else if (balance < -1 && key > node.left.key) {
-            node.left = rotateLeft(node.left);
-            return rotateRight(node);
+        while(i < length1 && j < length2) {
+            
+            if(array1[i] < array2[j]) {
+                i++;
+            } else if(array2[j] < array1[i]) {
+                j++;
+            } else {
+                resultArray[index++] = array1[i++];
+                j++;
+            }
             
-        //two cases if tree is right heavy
-        } else if (balance > 1 && key > node.right.key) {
-            return rotateLeft(node);
-        } else if (balance > 1 && key < node.right.key) {
-            node.right = rotateRight(node.right);
-            return rotateLeft(node);
         }
         
-        //otherwise return updated node
-        return node;
-    
+        //increase comparison counter by number of two pointer steps
+        if(metrics != null) {
+            metrics.comparisons.add(i + j - index);
+        }
+        
+        return index;
+        
     }
     
-    /*
-     * Private helper function for rotating nodes to the left and rebalancing
-     * tree. Temporary pointers are used in order to facilitate switching of 
-     * node positions and preserving subtrees.
+    /* A helper function to copy the values of the first sorted array that
+     * are not in the second into a third, with two pointers. Returns the
+     * number of values written to the result array.
      */
-    private AvlNode rotateLeft(AvlNode node) {
+    static int differenceSortedArrays(int[] array1, int length1,
+                                      int[] array2, int length2, int[] resultArray,
+                                      AvlMetrics metrics) {
         
-        //temporary pointers
-        AvlNode newParent = node.right;
-        AvlNode newLeftRightSubtree = newParent.left;
+        int i = 0;
+        int j = 0;
+        int index = 0;
         
-        //rotate nodes
-        newParent.left = node;
-        node.right = newLeftRightSubtree;
+        while(i < length1 && j < length2) {
+            
+            if(array1[i] < array2[j]) {
+                resultArray[index++] = array1[i++];
+            } else if(array2[j] < array1[i]) {
+                j++;
+            } else {
+                i++;
+                j++;
+            }
+            
+        }
         
-        //update heights
-        node.height = Math.max(height(node.left), height(node.right)) + 1;
-        newParent.height = Math.max(height(newParent.left), height(newParent.right)) + 1;
-    
-        //return new parent node
-        return newParent;
-    }
-
-    /*
-     * Private helper function for rotating nodes to the right  and rebalancing
-     * tree. Temporary pointers are used in order to facilitate switching of 
-     * node positions and preserving subtrees.
-     */    
-    private AvlNode rotateRight(AvlNode node) {
+        //increase comparison counter by number of two pointer steps
+        if(metrics != null) {
+            metrics.comparisons.add(index + j);
+        }
         
-        //temporary pointers
-        AvlNode newParent = node.left;
-        AvlNode newRightLeftSubtree = newParent.right;
+        //copy whatever remains of the first array
+        while(i < length1) {
+            resultArray[index++] = array1[i++];
+        }
         
-        //rotate nodes
-        newParent.right = node;
-        node.left = newRightLeftSubtree;
+        return index;
         
-        //update heights
-        node.height = Math.max(height(node.left), height(node.right)) + 1;
-        newParent.height = Math.max(height(newParent.left), height(newParent.right)) + 1;
-    
-        //return new parent node
-        return newParent;
-   
     }
     
-    /**
-     * A method for merging two AVL trees of size m and n. If the range of values
-     * in the AVL trees do not overlap, the method sorts each to an array, merges
-     * the arrays, and transforms the array back into an AVL tree in O(m+n) time.
-     * Otherwise, the smaller of the two trees is sorted into an array, and the
-     * elements of that array are inserted one by one into the other tree, which
-     * takes O(n lg(m + n)) time.
-     *
-     * This is the main experimental method and third of three.
-     *
-     * @param tree1 The first tree to be merged
-     * @param tree2 The second tree to be merged
-     * @return The merged AVL tree
+    /* A helper function to copy the keys found in both of two sorted arrays
+     * of distinct keys into a third as intersectSortedArrays does, with the
+     * smaller of the key's two counts. A null counts array counts each key
+     * once. Returns the number of keys written to the result array.
      */
-    public static AvlTree mergeTrees(AvlTree tree1, AvlTree tree2) {
+    static int intersectSortedCounts(int[] array1, int[] counts1, int length1,
+                                     int[] array2, int[] counts2, int length2,
+                                     int[] resultArray, int[] resultCounts,
+                                     AvlMetrics metrics) {
+        
+        int i = 0;
+        int j = 0;
+        int index = 0;
+        
+        while(i < length1 && j < length2) {
+            
+            if(array1[i] < array2[j]) {
+                i++;
+            } else if(array2[j] < array1[i]) {
+                j++;
+            } else {
+                resultArray[index] = array1[i];
+                resultCounts[index++] = Math.min(counts1 == null ? 1 : counts1[i],
+                                                 counts2 == null ? 1 : counts2[j]);
+                i++;
+                j++;
+            }
+            
+        }
+        
+        //increase comparison counter by number of two pointer steps
+        if(metrics != null) {
+            metrics.comparisons.add(i + j - index);
+        }
+        
+        return index;
+        
+    }
     
-        //increase comparison counter
-        comparisonCount++;
+    /* A helper function to copy the keys of the first sorted array of
+     * distinct keys into a third as differenceSortedArrays does, less the
+     * count of the same key in the second array. Keys whose count falls to
+     * zero or below are left out. A null counts array counts each key once.
+     * Returns the number of keys written to the result array.
+     */
+    static int differenceSortedCounts(int[] array1, int[] counts1, int length1,
+                                      int[] array2, int[] counts2, int length2,
+                                      int[] resultArray, int[] resultCounts,
+                                      AvlMetrics metrics) {
         
-        //check if tree conditions are right for simple sorted array merge
-        if(tree1.max() < tree2.min() || tree2.max() < tree1.min()) {
+        int i = 0;
+        int j = 0;
+        int index = 0;
         
-            //initialize returnArray and index counter
-            int[] mergeArray = new int[tree1.size + tree2.size];
-            int index = 0;
+        while(i < length1) {
             
-            int[] tree1Array = tree1.treeToArray();
-            int[] tree2Array = tree2.treeToArray();
+            int count = counts1 == null ? 1 : counts1[i];
             
-            for(int i = 0; i < tree1Array.length; i++) {
-                //increase comparison counter
-                comparisonCount++;
+            //step past smaller keys of the second array
+            while(j < length2 && array2[j] < array1[i]) {
+                j++;
+            }
             
-                //copy tree1 to returnArray
-                mergeArray[i] = tree1Array[i];
-                index++;
+            if(j < length2 && array2[j] == array1[i]) {
+                count -= counts2 == null ? 1 : counts2[j];
+                j++;
             }
             
-            for(int i = 0; i < tree2Array.length; i++) {
-                //increase comparison counter
-                comparisonCount++;
-                
-                //copy tree2 to returnArray
-                mergeArray[i + index] = tree2Array[i];
+            if(count > 0) {
+                resultArray[index] = array1[i];
+                resultCounts[index++] = count;
             }
             
-            //return tree built from mergeArray
-            return new AvlTree(mergeArray);
+            i++;
             
         }
         
-        //otherwise find smaller of two trees and insert element by element
-        AvlTree smaller;
-        AvlTree larger;
-        
-        //increase comparison counter
-        comparisonCount++;
-        
-        //find smaller and larger of trees
-        if(tree1.size < tree2.size) {
-            smaller = tree1;
-            larger = tree2;
-        } else {
-            smaller = tree2;
-            larger = tree1;
+        //increase comparison counter by number of two pointer steps
+        if(metrics != null) {
+            metrics.comparisons.add(i + j);
         }
         
-        //sort smaller tree into array
-        int[] insertArray = smaller.treeToArray();
-        
-        //insert smaller tree's elements into larger tree
-        for(int i = 0; i < insertArray.length; i++) {
-        
-            larger.root = larger.insert(larger.root, insertArray[i]);
+        return index;
         
-        }
-    
-        //return completely merged tree
-        return larger;
-    
     }
     
-    
-    
-    
     /**
      * A testing method for proof of working implementation, which will
      * be ran and recorded on video.
@@ -446,11 +2932,14 @@ public class AvlTree {
      */
     public static void videoTest() {
         
+        //counters shared by every tree in the test
+        AvlMetrics metrics = new AvlMetrics();
+        
         //reset comparison counter
-        comparisonCount = 0;
+        metrics.reset();
         
         //build tree with insert function
-        AvlTree test1 = new AvlTree(1);
+        AvlTree test1 = new AvlTree(1, metrics);
         
         test1.root = test1.insert(test1.root, 3);
         test1.root = test1.insert(test1.root, 5);
@@ -476,16 +2965,16 @@ public class AvlTree {
         
         System.out.println();
         System.out.println("Number of comparisons needed to build and sort: " 
-                           + comparisonCount);
+                           + metrics.comparisons());
         System.out.println();
         
         //reset comparison counter
-        comparisonCount = 0;
+        metrics.reset();
         
         //build tree from array
         int[] testArray = new int[] {2, 4, 6, 8, 10, 12, 14, 16, 18, 20};
         
-        AvlTree test2 = new AvlTree(testArray);
+        AvlTree test2 = new AvlTree(testArray, metrics);
         
         //sort tree into array and print
         printarray = test2.treeToArray();
@@ -501,11 +2990,11 @@ public class AvlTree {
         
         System.out.println();
         System.out.println("Number of comparisons needed to build and sort: " 
-                           + comparisonCount);
+                           + metrics.comparisons());
         System.out.println();
         
         //reset comparison counter
-        comparisonCount = 0;
+        metrics.reset();
         
         //merge two previous trees, sort to array and print
         System.out.println("Testing merge function - Tree 1 + Tree 2");
@@ -524,7 +3013,7 @@ public class AvlTree {
         System.out.println();
         
         System.out.println("Number of comparisons needed to merge and sort: " 
-                           + comparisonCount);
+                           + metrics.comparisons());
         
                 
     }
@@ -549,6 +3038,9 @@ public class AvlTree {
      */
     public static void treeTest(int k) {
     
+        //counters shared by every tree in the test
+        AvlMetrics metrics = new AvlMetrics();
+        
         //test array to tree and sort tree to array functions
         int[] testArray = new int[k];
         
@@ -557,21 +3049,21 @@ public class AvlTree {
         }
         
         //reset comparison count
-        comparisonCount = 0;
+        metrics.reset();
         
-        AvlTree testTree = new AvlTree(testArray);
+        AvlTree testTree = new AvlTree(testArray, metrics);
         
         System.out.println("Number of comparisons needed to build tree from sorted " +
-                           "array of size " + k + " is " + comparisonCount);
+                           "array of size " + k + " is " + metrics.comparisons());
         System.out.println();
         
         //reset comparison count
-        comparisonCount = 0;
+        metrics.reset();
         
         testArray = testTree.treeToArray();
         
         System.out.println("Number of comparisons needed to sort tree of size " +
-                           + k + " into an array is " + comparisonCount);
+                           + k + " into an array is " + metrics.comparisons());
         System.out.println();
         
         //run test of tree merge with type 1 datasets
@@ -583,16 +3075,16 @@ public class AvlTree {
            type1right[i] = i + k/2;
         }
         
-        AvlTree left = new AvlTree(type1left);
-        AvlTree right = new AvlTree(type1right);
+        AvlTree left = new AvlTree(type1left, metrics);
+        AvlTree right = new AvlTree(type1right, metrics);
         
         //reset comparison counter
-        comparisonCount = 0;
+        metrics.reset();
         
         mergeTrees(left, right);
         
         System.out.println("Number of comparisons needed to merge type 1 trees of combined size " +
-                           + k + "  is " + comparisonCount);
+                           + k + "  is " + metrics.comparisons());
         System.out.println();
         
         //run test of trees with type 2 datasets
@@ -609,16 +3101,16 @@ public class AvlTree {
             type2right[i] = i + k*2/10;
         }
         
-        left = new AvlTree(type2left);
-        right = new AvlTree(type2right);
+        left = new AvlTree(type2left, metrics);
+        right = new AvlTree(type2right, metrics);
         
         //reset comparison counter
-        comparisonCount = 0;
+        metrics.reset();
         
         mergeTrees(left, right);
         
         System.out.println("Number of comparisons needed to merge type 2 trees of combined size " +
-                           + k + "  is " + comparisonCount);
+                           + k + "  is " + metrics.comparisons());
         System.out.println();
         
         //run test of type 3 datasets
@@ -630,27 +3122,70 @@ public class AvlTree {
             type3right[i] =2*i;
         }
         
-        left = new AvlTree(type3left);
-        right = new AvlTree(type3right);
+        left = new AvlTree(type3left, metrics);
+        right = new AvlTree(type3right, metrics);
         
         //reset comparison counter
-        comparisonCount = 0;
+        metrics.reset();
         
         mergeTrees(left, right);
         
         System.out.println("Number of comparisons needed to merge type 3 trees of combined size " +
-                           + k + "  is " + comparisonCount);
+                           + k + "  is " + metrics.comparisons());
+        System.out.println();
+        
+        //run test of type 3 datasets with linear merge
+        left = new AvlTree(type3left, metrics);
+        right = new AvlTree(type3right, metrics);
+        
+        //reset comparison counter
+        metrics.reset();
+        
+        mergeTreesLinear(left, right);
+        
+        System.out.println("Number of comparisons needed to linear merge type 3 trees of combined size " +
+                           + k + "  is " + metrics.comparisons());
         System.out.println();       
+        
+        //run test of each dataset type with the planned merge
+        int[][][] datasets = { {type1left, type1right},
+                               {type2left, type2right},
+                               {type3left, type3right} };
+        
+        for(int i = 0; i < datasets.length; i++) {
+            
+            left = new AvlTree(datasets[i][0], metrics);
+            right = new AvlTree(datasets[i][1], metrics);
+            
+            //reset comparison counter
+            metrics.reset();
+            
+            MergePlan plan = planMerge(left, right);
+            mergeTrees(left, right, plan);
+            
+            System.out.println("Number of comparisons needed to " + plan.strategy() + " merge type "
+                               + (i + 1) + " trees of combined size " + k + "  is " + metrics.comparisons());
+            System.out.println();
+            
+        }
     
     }
     
     /**
-     * The application method.
+     * The application method. Given "load" as the first argument, runs the
+     * AvlLoadGenerator workload driver with the remaining arguments instead.
      *
      * @param args The command-line arguments
+     * @throws FileNotFoundException if the load generator cannot create its
+     * output file
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws FileNotFoundException {
     
+      if(args.length > 0 && args[0].equals("load")) {
+          AvlLoadGenerator.main(Arrays.copyOfRange(args, 1, args.length));
+          return;
+      }
+      
       //run test of functions to show proper insertion and sorting
       videoTest();
     
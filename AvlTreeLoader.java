@@ -0,0 +1,241 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
+
+/**
+ * This class implements a bulk loader that builds AVL trees from raw keys,
+ * which may be unsorted and repeated, rather than from the sorted, distinct
+ * array the AvlTree array constructor needs. Keys may come from an array,
+ * an IntStream, or a channel of little-endian 32-bit integers. They are
+ * gathered into a single array, sorted only if they are not already in
+ * order, with repeated keys removed in place, and the tree is built from the
+ * array with the divide and conquer constructor. Apart from the sort's
+ * work space, the one key array is the only copy of the keys.
+ *
+ * When reading from a file, the array is allocated once from the file's
+ * size, and each chunk of keys is sorted by a fork/join task while the
+ * following chunks are still being read. The final sort then finds the
+ * array already made of ascending runs and only merges them.
+ *
+ * Created as part of an assignment for Foundations of Algorithms, a graduate-
+ * level course at Johns Hopkins University.
+ *
+ * @author Joseph Scheidt
+ * @version Programming Assignment 1
+ */
+public class AvlTreeLoader {
+    
+    //bytes read from a channel at a time
+    private static final int READ_BUFFER_BYTES = 1 << 16;
+    
+    //keys per chunk sorted in the background while reading a file
+    private static final int SORT_CHUNK = 1 << 20;
+    
+    //starting array size when the number of keys is unknown
+    private static final int INITIAL_CAPACITY = 1 << 12;
+    
+    /**
+     * A method to build an AVL tree from an array of keys in any order,
+     * possibly repeated. The array is sorted in place using all cores,
+     * unless a scan finds it already sorted, and repeated keys are moved
+     * out of the way in place, so the caller's array is changed.
+     *
+     * @param data the keys to build the tree from
+     * @param metrics the counters to update, or null to not count
+     * @return the AVL tree of the distinct keys
+     */
+    public static AvlTree fromArray(int[] data, AvlMetrics metrics) {
+        
+        return build(data, data.length, metrics);
+        
+    }
+    
+    /**
+     * A method to build an AVL tree from a stream of keys in any order,
+     * possibly repeated.
+     *
+     * @param keys the keys to build the tree from
+     * @param metrics the counters to update, or null to not count
+     * @return the AVL tree of the distinct keys
+     */
+    public static AvlTree fromStream(IntStream keys, AvlMetrics metrics) {
+        
+        int[] data = keys.toArray();
+        
+        return build(data, data.length, metrics);
+        
+    }
+    
+    /**
+     * A method to build an AVL tree from a file of little-endian 32-bit
+     * keys in any order, possibly repeated, with no header.
+     *
+     * @param path the file to read
+     * @param metrics the counters to update, or null to not count
+     * @return the AVL tree of the distinct keys
+     * @throws IOException if the file cannot be read, or ends inside a key
+     */
+    public static AvlTree read(Path path, AvlMetrics metrics) throws IOException {
+        
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return read(channel, metrics);
+        }
+        
+    }
+    
+    /**
+     * A method to build an AVL tree from a channel of little-endian 32-bit
+     * keys in any order, possibly repeated, read until the end of the
+     * channel. For a channel of known size, such as a file, the key array is
+     * allocated once and chunks of it are sorted while the rest is read;
+     * otherwise the array grows as keys arrive and is sorted at the end.
+     *
+     * @param channel the channel to read, positioned at the first key
+     * @param metrics the counters to update, or null to not count
+     * @return the AVL tree of the distinct keys
+     * @throws IOException if the channel cannot be read, or ends inside a key
+     */
+    public static AvlTree read(ReadableByteChannel channel, AvlMetrics metrics)
+        throws IOException {
+        
+        boolean presized = channel instanceof SeekableByteChannel;
+        int[] data;
+        
+        //a channel of known size gives the number of keys up front
+        if(presized) {
+            
+            SeekableByteChannel seekable = (SeekableByteChannel) channel;
+            long keys = (seekable.size() - seekable.position()) / Integer.BYTES;
+            
+            if(keys > Integer.MAX_VALUE - 8) {
+                throw new IOException(keys + " keys are too many for one array");
+            }
+            
+            data = new int[(int) keys];
+            
+        } else {
+            
+            data = new int[INITIAL_CAPACITY];
+            
+        }
+        
+        ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER_BYTES)
+                                      .order(ByteOrder.LITTLE_ENDIAN);
+        List<ForkJoinTask<?>> sorts = new ArrayList<>();
+        int length = 0;
+        int chunkStart = 0;
+        
+        while(channel.read(buffer) >= 0) {
+            
+            buffer.flip();
+            IntBuffer ints = buffer.asIntBuffer();
+            int count = ints.remaining();
+            
+            //grow the array if needed, once background sorts are done with it
+            if(data.length - length < count) {
+                
+                for(ForkJoinTask<?> sort : sorts) {
+                    sort.join();
+                }
+                
+                sorts.clear();
+                presized = false;
+                data = Arrays.copyOf(data, Math.max(length + count, 2 * data.length));
+                
+            }
+            
+            ints.get(data, length, count);
+            length += count;
+            
+            //keep any partial key for the next read
+            buffer.position(count * Integer.BYTES);
+            buffer.compact();
+            
+            //sort each completed chunk in the background while reading on
+            while(presized && length - chunkStart >= SORT_CHUNK) {
+                
+                final int[] array = data;
+                final int from = chunkStart;
+                
+                sorts.add(ForkJoinPool.commonPool().submit(() -> sortRun(array, from, from + SORT_CHUNK)));
+                chunkStart += SORT_CHUNK;
+                
+            }
+            
+        }
+        
+        if(buffer.position() > 0) {
+            throw new IOException("channel ended " + buffer.position() + " bytes into a key");
+        }
+        
+        for(ForkJoinTask<?> sort : sorts) {
+            sort.join();
+        }
+        
+        return build(data, length, metrics);
+        
+    }
+    
+    /* A helper function to sort part of an array, unless it is already
+     * sorted.
+     */
+    private static void sortRun(int[] data, int from, int to) {
+        
+        if(!isSorted(data, from, to)) {
+            Arrays.sort(data, from, to);
+        }
+        
+    }
+    
+    /* A helper function to test whether part of an array is in ascending
+     * order, allowing repeated keys.
+     */
+    private static boolean isSorted(int[] data, int from, int to) {
+        
+        for(int i = from + 1; i < to; i++) {
+            if(data[i] < data[i - 1]) {
+                return false;
+            }
+        }
+        
+        return true;
+        
+    }
+    
+    /* A helper function to sort the first length keys of an array in
+     * parallel if they are not already sorted, which merges ascending runs
+     * rather than sorting them again, remove repeated keys in place, and
+     * build a tree from the distinct keys.
+     */
+    private static AvlTree build(int[] data, int length, AvlMetrics metrics) {
+        
+        if(!isSorted(data, 0, length)) {
+            Arrays.parallelSort(data, 0, length);
+        }
+        
+        //copy each key over the repeats before it
+        int distinct = 0;
+        
+        for(int i = 0; i < length; i++) {
+            if(distinct == 0 || data[distinct - 1] != data[i]) {
+                data[distinct++] = data[i];
+            }
+        }
+        
+        return new AvlTree(data, distinct, metrics);
+        
+    }
+    
+}
@@ -0,0 +1,106 @@
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class implements the union of two AVL subtrees as a fork/join task,
+ * using the split and join primitives of AvlTree. The root of the first
+ * subtree is used to split the second, the two halves are united in
+ * parallel, and the results are joined back around the root. This takes
+ * O(m lg(n/m + 1)) work and polylogarithmic span.
+ *
+ * Created as part of an assignment for Foundations of Algorithms, a graduate-
+ * level course at Johns Hopkins University.
+ *
+ * @author Joseph Scheidt
+ * @version Programming Assignment 1
+ */
+class AvlUnionTask extends RecursiveTask<AvlNode> {
+    
+    //version of the serialized form inherited from ForkJoinTask
+    private static final long serialVersionUID = 1L;
+    
+    //subtrees no taller than this are united without forking
+    static final int SEQUENTIAL_HEIGHT = 12;
+    
+    //tree whose split and join functions are used for the union
+    private final AvlTree tree;
+    
+    //subtrees to be united
+    private final AvlNode node1;
+    private final AvlNode node2;
+    
+    /**
+     * A constructor for the class.
+     *
+     * @param t the tree that performs splits and joins
+     * @param n1 the first subtree to be united
+     * @param n2 the second subtree to be united
+     */
+    AvlUnionTask(AvlTree t, AvlNode n1, AvlNode n2) {
+        
+        tree = t;
+        node1 = n1;
+        node2 = n2;
+        
+    }
+    
+    @Override
+    protected AvlNode compute() {
+        
+        return union(node1, node2);
+        
+    }
+    
+    /* A helper function, called recursively, to unite two subtrees. The
+     * second subtree is split around the key of the first subtree's root,
+     * the left and right halves are united, and the results are joined with
+     * the root in between. The halves are forked as a separate task when both
+     * subtrees are large enough to be worth the scheduling cost.
+     */
+    private AvlNode union(AvlNode n1, AvlNode n2) {
+        
+        //an empty subtree leaves the other unchanged
+        if(n1 == null) {
+            return n2;
+        } else if(n2 == null) {
+            return n1;
+        }
+        
+        //save children of n1 before the join reuses it
+        AvlNode left1 = n1.left;
+        AvlNode right1 = n1.right;
+        
+        //split n2 around the key of n1, dropping any repeated key
+        AvlSplit split = tree.split(n2, n1.key);
+        
+        //a multiset keeps the repeated key's count in n1
+        if(split.found != null && tree.multiset) {
+            n1 = tree.addCount(n1, AvlTree.count(split.found));
+        }
+        
+        AvlNode left;
+        AvlNode right;
+        
+        //unite left halves in a forked task when both subtrees are large
+        if(AvlTree.height(n1) > SEQUENTIAL_HEIGHT
+           && AvlTree.height(n2) > SEQUENTIAL_HEIGHT) {
+            
+            AvlUnionTask leftTask = new AvlUnionTask(tree, left1, split.left);
+            leftTask.fork();
+            
+            right = union(right1, split.right);
+            left = leftTask.join();
+            
+        } else {
+            
+            left = union(left1, split.left);
+            right = union(right1, split.right);
+            
+        }
+        
+        //join united halves around n1
+        return tree.join(left, n1, right);
+        
+    }
+
+
+}
@@ -0,0 +1,34 @@
+/**
+ * This class implements the leaves of BucketAvlTree. Rather than a single
+ * key, each leaf holds a sorted bucket of key values, of which the first
+ * count entries are in use. A leaf has no children, and the separator key
+ * it inherits from BucketAvlNode is set to its first key when created but
+ * is not kept up to date or used.
+ * Created as part of an assignment for Foundations of Algorithms, a graduate-
+ * level course at Johns Hopkins University.
+ *
+ * @author Joseph Scheidt
+ * @version Programming Assignment 1
+ */
+public class BucketAvlLeaf extends BucketAvlNode {
+
+    int[] keys;
+    int count;
+    
+    /**
+     * A constructor for the class.
+     *
+     * @param k the bucket of sorted key values for this leaf
+     * @param c the number of key values in use in the bucket
+     */
+    public BucketAvlLeaf(int[] k, int c) {
+        
+        //intialize as a node of height 1, bucket to paramater values
+        super(k[0]);
+        keys = k;
+        count = c;
+        
+    }
+
+
+}
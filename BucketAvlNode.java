@@ -0,0 +1,36 @@
+/**
+ * This class implements the routing nodes of BucketAvlTree. A routing node
+ * holds only a separator key and two children: every key below its left
+ * child is smaller than the separator, and every key below its right child
+ * is at least as large. The keys themselves are kept in BucketAvlLeaf
+ * nodes at the bottom of the tree.
+ * Created as part of an assignment for Foundations of Algorithms, a graduate-
+ * level course at Johns Hopkins University.
+ *
+ * @author Joseph Scheidt
+ * @version Programming Assignment 1
+ */
+public class BucketAvlNode {
+
+    BucketAvlNode left;
+    BucketAvlNode right;
+    int height;
+    int key;
+    
+    /**
+     * A constructor for the class, for a root node.
+     *
+     * @param k the separator key value for this node
+     */
+    public BucketAvlNode(int k) {
+        
+        //intialize pointers to null, height to 1, key to paramater value
+        left = null;
+        right = null;
+        height = 1;
+        key = k;
+        
+    }
+
+
+}
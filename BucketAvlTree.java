@@ -0,0 +1,758 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * This class implements a set of integers as an AVL tree whose leaves are
+ * sorted buckets of between MIN_BUCKET and MAX_BUCKET key values, rather
+ * than a tree with one key per node as in AvlTree. The internal nodes hold
+ * only a separator key and two child pointers, and only they are kept
+ * AVL-balanced; a lookup follows the separators down to a single leaf and
+ * finishes with a binary search of its bucket. Keys are moved within and
+ * between buckets with System.arraycopy. A full bucket is split in two
+ * under a new routing node, and a bucket falling below MIN_BUCKET keys is
+ * merged into or refilled from its neighboring leaf.
+ *
+ * With one leaf and one array per bucket, and one small routing node per
+ * leaf, the tree takes several times less memory per key than AvlTree, and
+ * sorting the tree into an array, copying a range and merging trees copy
+ * whole buckets at a time.
+ *
+ * Created as part of an assignment for Foundations of Algorithms, a graduate-
+ * level course at Johns Hopkins University.
+ *
+ * @author Joseph Scheidt
+ * @version Programming Assignment 1
+ */
+public class BucketAvlTree {
+    
+    //largest number of keys in a bucket, past which it is split in two
+    static final int MAX_BUCKET = 128;
+    
+    //smallest number of keys in a bucket, unless it is the only one
+    static final int MIN_BUCKET = 32;
+    
+    //number of keys placed in each bucket when building from an array,
+    //leaving room for inserts before the first split
+    static final int BUILD_BUCKET = 96;
+    
+    //root node for the tree, a leaf if the tree has one bucket
+    BucketAvlNode root;
+    
+    //number of keys in the tree
+    int size;
+    
+    /**
+     * A simple function to return the height of a particular node.
+     * This function helps avoid NullPointerExceptions.
+     *
+     * @param node the node whose height is measured
+     * @return the height of the node
+     */
+    public static int height(BucketAvlNode node) {
+        
+        if(node == null) {
+            return 0;
+        } else {
+            return node.height;
+        }
+        
+    }
+    
+    /**
+     * A simple function to return the balance of a particular node.
+     * This function helps avoid NullPointerExceptions.
+     *
+     * @param node the node whose balance is measured
+     * @return the balance of the node
+     */
+    public static int balance(BucketAvlNode node) {
+        
+        if(node == null) {
+            return 0;
+        } else {
+            return height(node.right) - height(node.left);
+        }
+        
+    }
+    
+    /**
+     * A constructor for the class. Initializes an empty tree.
+     */
+    public BucketAvlTree() {
+        
+        root = null;
+        size = 0;
+        
+    }
+    
+    /**
+     * A constructor for the class. Takes a sorted array and builds a complete
+     * AVL tree in O(n) time, dividing the array evenly into buckets of about
+     * BUILD_BUCKET keys and using divide and conquer to place the buckets at
+     * the leaves, with the first key of each right half as its separator.
+     *
+     * @param data the sorted array to transform into a tree
+     */
+    public BucketAvlTree(int[] data) {
+        
+        this(data, data.length);
+        
+    }
+    
+    /* A private constructor to build a tree from the first length values of
+     * a sorted array.
+     */
+    private BucketAvlTree(int[] data, int length) {
+        
+        int buckets = (length + BUILD_BUCKET - 1) / BUILD_BUCKET;
+        
+        root = buckets == 0 ? null : buildTree(data, length, buckets, 0, buckets - 1);
+        size = length;
+        
+    }
+    
+    /* A helper function, called recursively, to build a tree from buckets
+     * beg through end of the sorted array. A single bucket becomes a leaf;
+     * otherwise the buckets are halved, and a routing node separates the
+     * halves by the first key of the right half. Bucket i starts at index
+     * i * length / buckets, so that bucket sizes differ by at most one.
+     */
+    private static BucketAvlNode buildTree(int[] data, int length, int buckets,
+                                           int beg, int end) {
+        
+        //copy a single bucket's keys into a leaf
+        if(beg == end) {
+            
+            int from = start(beg, length, buckets);
+            int to = start(beg + 1, length, buckets);
+            
+            int[] keys = new int[MAX_BUCKET];
+            System.arraycopy(data, from, keys, 0, to - from);
+            
+            return new BucketAvlLeaf(keys, to - from);
+            
+        }
+        
+        //split buckets in half and separate halves by first key on the right
+        int middle = beg + (end - beg) / 2;
+        BucketAvlNode node = new BucketAvlNode(data[start(middle + 1, length, buckets)]);
+        
+        node.left = buildTree(data, length, buckets, beg, middle);
+        node.right = buildTree(data, length, buckets, middle + 1, end);
+        
+        //calculate node's height
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        
+        return node;
+        
+    }
+    
+    /* A helper function to return the index of the first key of a bucket
+     * when length keys are divided evenly into the given number of buckets.
+     */
+    private static int start(int bucket, int length, int buckets) {
+        
+        return (int) ((long) bucket * length / buckets);
+        
+    }
+    
+    /**
+     * A simple function to return the number of keys in the tree.
+     *
+     * @return the number of keys in the tree
+     */
+    public int size() {
+        
+        return size;
+        
+    }
+    
+    /**
+     * A simple function to return the maximum value of a tree.
+     *
+     * @return the maximum value of a tree
+     * @throws NoSuchElementException if the tree is empty
+     */
+    public int max() {
+        
+        //an empty tree has no key to return
+        if(root == null) {
+            throw new NoSuchElementException();
+        }
+        
+        BucketAvlNode rightMost = root;
+        
+        while(rightMost.right != null) {
+            rightMost = rightMost.right;
+        }
+        
+        BucketAvlLeaf leaf = (BucketAvlLeaf) rightMost;
+        
+        return leaf.keys[leaf.count - 1];
+        
+    }
+    
+    /**
+     * A simple function to return the minimum value of a tree.
+     *
+     * @return the minimum value of a tree
+     * @throws NoSuchElementException if the tree is empty
+     */
+    public int min() {
+        
+        //an empty tree has no key to return
+        if(root == null) {
+            throw new NoSuchElementException();
+        }
+        
+        BucketAvlNode leftMost = root;
+        
+        while(leftMost.left != null) {
+            leftMost = leftMost.left;
+        }
+        
+        return ((BucketAvlLeaf) leftMost).keys[0];
+        
+    }
+    
+    /**
+     * A method to test whether a key value is in the tree. The separators
+     * are followed down to the one leaf that could hold the key in O(lg n)
+     * time, and its bucket is searched by binary search.
+     *
+     * @param key The key value to look for
+     * @return true if the tree contains the key
+     */
+    public boolean contains(int key) {
+        
+        if(root == null) {
+            return false;
+        }
+        
+        BucketAvlLeaf leaf = leafFor(root, key);
+        
+        return Arrays.binarySearch(leaf.keys, 0, leaf.count, key) >= 0;
+        
+    }
+    
+    /* A helper function to follow the separators below a node down to the
+     * leaf a key value belongs in.
+     */
+    private static BucketAvlLeaf leafFor(BucketAvlNode node, int key) {
+        
+        while(!(node instanceof BucketAvlLeaf)) {
+            
+            if(key < node.key) {
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+            
+        }
+        
+        return (BucketAvlLeaf) node;
+        
+    }
+    
+    /**
+     * A method to turn the tree into a sorted array in O(n) time, visiting
+     * the leaves from left to right with the routing nodes still to visit
+     * kept on an explicit stack, and copying each bucket whole.
+     *
+     * @return a sorted array
+     */
+    public int[] treeToArray() {
+        
+        int[] returnArray = new int[size];
+        
+        if(root == null) {
+            return returnArray;
+        }
+        
+        BucketAvlNode[] stack = new BucketAvlNode[height(root) + 1];
+        int top = 0;
+        int index = 0;
+        
+        stack[top++] = root;
+        
+        while(top > 0) {
+            
+            BucketAvlNode node = stack[--top];
+            
+            //copy a leaf's bucket to array, or visit left child before right
+            if(node instanceof BucketAvlLeaf) {
+                BucketAvlLeaf leaf = (BucketAvlLeaf) node;
+                System.arraycopy(leaf.keys, 0, returnArray, index, leaf.count);
+                index += leaf.count;
+            } else {
+                stack[top++] = node.right;
+                stack[top++] = node.left;
+            }
+            
+        }
+        
+        return returnArray;
+        
+    }
+    
+    /**
+     * A method to copy the key values of the tree from lo to hi, inclusive,
+     * into a caller's array in sorted order, without allocating. Subtrees
+     * lying wholly outside the range are never entered, and buckets are
+     * copied in slices, so copying k keys takes O(lg n + k) time. The number
+     * of keys is found first, so nothing is written if the array is too
+     * small.
+     *
+     * @param lo The smallest key value to copy
+     * @param hi The largest key value to copy
+     * @param dst The array to copy into
+     * @param offset The index in dst of the first key copied
+     * @return the number of keys copied
+     */
+    public int rangeToArray(int lo, int hi, int[] dst, int offset) {
+        
+        int count = lo > hi ? 0 : copyRange(root, lo, hi, null, 0);
+        
+        if(offset < 0 || offset > dst.length - count) {
+            throw new IndexOutOfBoundsException(count + " keys at offset " + offset
+                                                + " in array of length " + dst.length);
+        }
+        
+        if(count > 0) {
+            copyRange(root, lo, hi, dst, offset);
+        }
+        
+        return count;
+        
+    }
+    
+    /* A helper function, called recursively, to store the keys of a subtree
+     * between lo and hi in the array from the given index, in sorted order.
+     * A routing node whose separator lies outside the range leads only to
+     * the child on the side of the range, and only the slice of a bucket
+     * inside the range is copied. With a null array, keys are only counted.
+     * Returns the index after the last key.
+     */
+    private static int copyRange(BucketAvlNode node, int lo, int hi, int[] dst, int index) {
+        
+        if(node == null) {
+            return index;
+        }
+        
+        while(!(node instanceof BucketAvlLeaf)) {
+            
+            if(hi < node.key) {
+                node = node.left;
+            } else if(lo >= node.key) {
+                node = node.right;
+            } else {
+                index = copyRange(node.left, lo, hi, dst, index);
+                node = node.right;
+            }
+            
+        }
+        
+        BucketAvlLeaf leaf = (BucketAvlLeaf) node;
+        
+        //find slice of bucket in range
+        int from = slot(leaf, lo);
+        int to = leaf.keys[leaf.count - 1] <= hi ? leaf.count : slot(leaf, hi + 1);
+        
+        if(from < to) {
+            
+            if(dst != null) {
+                System.arraycopy(leaf.keys, from, dst, index, to - from);
+            }
+            
+            index += to - from;
+            
+        }
+        
+        return index;
+        
+    }
+    
+    /* A helper function to return the index of the first key in a bucket
+     * that is no smaller than the given key value, by binary search.
+     */
+    private static int slot(BucketAvlLeaf leaf, int key) {
+        
+        int index = Arrays.binarySearch(leaf.keys, 0, leaf.count, key);
+        
+        return index >= 0 ? index : -index - 1;
+        
+    }
+    
+    /**
+     * A method to insert a key value into the tree. The key is shifted into
+     * place in its leaf's bucket, and if the bucket is already full it is
+     * first split in two, with the upper half moved to a new leaf. A new
+     * routing node takes the old leaf's place with the two halves as its
+     * children, and the path back up is rebalanced.
+     *
+     * @param key The key value to insert
+     */
+    public void insert(int key) {
+        
+        //first key starts the first bucket
+        if(root == null) {
+            int[] keys = new int[MAX_BUCKET];
+            keys[0] = key;
+            root = new BucketAvlLeaf(keys, 1);
+            size++;
+            return;
+        }
+        
+        root = insert(root, key);
+        
+    }
+    
+    /* A helper function, called recursively, to insert a key value below a
+     * node, following the separators down to a leaf and rebalancing the path
+     * back up. Returns the node to put in this node's place.
+     */
+    private BucketAvlNode insert(BucketAvlNode node, int key) {
+        
+        if(node instanceof BucketAvlLeaf) {
+            return insert((BucketAvlLeaf) node, key);
+        }
+        
+        if(key < node.key) {
+            node.left = insert(node.left, key);
+        } else {
+            node.right = insert(node.right, key);
+        }
+        
+        return rebalance(node);
+        
+    }
+    
+    /* A helper function to insert a key value into a leaf's bucket, keeping
+     * one copy of each key. A full bucket is split, and the routing node
+     * over the two halves is returned in the leaf's place.
+     */
+    private BucketAvlNode insert(BucketAvlLeaf leaf, int key) {
+        
+        int index = Arrays.binarySearch(leaf.keys, 0, leaf.count, key);
+        
+        //keep one copy of each key
+        if(index >= 0) {
+            return leaf;
+        }
+        
+        index = -index - 1;
+        BucketAvlNode replacement = leaf;
+        
+        //split full bucket, moving upper half to a new leaf
+        if(leaf.count == MAX_BUCKET) {
+            
+            int half = MAX_BUCKET / 2;
+            int[] keys = new int[MAX_BUCKET];
+            System.arraycopy(leaf.keys, half, keys, 0, MAX_BUCKET - half);
+            BucketAvlLeaf upper = new BucketAvlLeaf(keys, MAX_BUCKET - half);
+            leaf.count = half;
+            
+            //route new key to the half it belongs in, which keeps upper's first key
+            replacement = new BucketAvlNode(upper.keys[0]);
+            replacement.left = leaf;
+            replacement.right = upper;
+            replacement.height = 2;
+            
+            if(index > half) {
+                leaf = upper;
+                index -= half;
+            }
+            
+        }
+        
+        //shift larger keys up to make room
+        System.arraycopy(leaf.keys, index, leaf.keys, index + 1, leaf.count - index);
+        leaf.keys[index] = key;
+        leaf.count++;
+        size++;
+        
+        return replacement;
+        
+    }
+    
+    /**
+     * A method to delete a key value from the tree, if it is present. The
+     * key is shifted out of its leaf's bucket, and if fewer than MIN_BUCKET
+     * keys are left, the bucket is merged with the neighboring leaf under
+     * the same routing node when both fit in one bucket, removing that
+     * routing node, or otherwise takes keys from the neighbor to even them
+     * out and updates the separator between them.
+     *
+     * @param key The key value to delete
+     * @return true if the key was in the tree
+     */
+    public boolean delete(int key) {
+        
+        if(root == null) {
+            return false;
+        }
+        
+        int oldSize = size;
+        
+        root = delete(root, key);
+        
+        //only the last bucket can be emptied
+        if(root instanceof BucketAvlLeaf && ((BucketAvlLeaf) root).count == 0) {
+            root = null;
+        }
+        
+        return size < oldSize;
+        
+    }
+    
+    /* A helper function, called recursively, to delete a key value below a
+     * node. After deleting below a routing node, a leaf child left with too
+     * few keys is evened out with its neighbor, and the path back up is
+     * rebalanced. Returns the node to put in this node's place.
+     */
+    private BucketAvlNode delete(BucketAvlNode node, int key) {
+        
+        if(node instanceof BucketAvlLeaf) {
+            
+            BucketAvlLeaf leaf = (BucketAvlLeaf) node;
+            int index = Arrays.binarySearch(leaf.keys, 0, leaf.count, key);
+            
+            //shift larger keys down over the deleted key
+            if(index >= 0) {
+                System.arraycopy(leaf.keys, index + 1, leaf.keys, index, leaf.count - index - 1);
+                leaf.count--;
+                size--;
+            }
+            
+            return leaf;
+            
+        }
+        
+        if(key < node.key) {
+            
+            node.left = delete(node.left, key);
+            
+            if(underflows(node.left)) {
+                return fillLeft(node);
+            }
+        
+        } else {
+            
+            node.right = delete(node.right, key);
+            
+            if(underflows(node.right)) {
+                return fillRight(node);
+            }
+            
+        }
+        
+        return rebalance(node);
+        
+    }
+    
+    /* A helper function to test whether a node is a leaf with fewer than
+     * MIN_BUCKET keys.
+     */
+    private static boolean underflows(BucketAvlNode node) {
+        
+        return node instanceof BucketAvlLeaf && ((BucketAvlLeaf) node).count < MIN_BUCKET;
+        
+    }
+    
+    /* A helper function to even out a routing node's left leaf, which has
+     * too few keys, with the first leaf of its right subtree. If their keys
+     * fit in one bucket, the left leaf's keys are moved in front of the
+     * neighbor's and the right subtree takes the routing node's place.
+     * Otherwise keys are moved across so each holds half, and the routing
+     * node's separator becomes the neighbor's new first key. Returns the node
+     * to put in the routing node's place.
+     */
+    private static BucketAvlNode fillLeft(BucketAvlNode node) {
+        
+        BucketAvlLeaf leaf = (BucketAvlLeaf) node.left;
+        BucketAvlNode next = node.right;
+        
+        while(next.left != null) {
+            next = next.left;
+        }
+        
+        BucketAvlLeaf neighbor = (BucketAvlLeaf) next;
+        int total = leaf.count + neighbor.count;
+        
+        if(total <= MAX_BUCKET) {
+            
+            //prepend keys to neighbor and drop leaf with its routing node
+            System.arraycopy(neighbor.keys, 0, neighbor.keys, leaf.count, neighbor.count);
+            System.arraycopy(leaf.keys, 0, neighbor.keys, 0, leaf.count);
+            neighbor.count = total;
+            
+            return node.right;
+            
+        }
+        
+        //move first keys of neighbor to end of leaf
+        int move = total / 2 - leaf.count;
+        System.arraycopy(neighbor.keys, 0, leaf.keys, leaf.count, move);
+        System.arraycopy(neighbor.keys, move, neighbor.keys, 0, neighbor.count - move);
+        leaf.count += move;
+        neighbor.count -= move;
+        node.key = neighbor.keys[0];
+        
+        return node;
+        
+    }
+    
+    /* A helper function to even out a routing node's right leaf, which has
+     * too few keys, with the last leaf of its left subtree, as fillLeft does
+     * on the other side. Returns the node to put in the routing node's place.
+     */
+    private static BucketAvlNode fillRight(BucketAvlNode node) {
+        
+        BucketAvlLeaf leaf = (BucketAvlLeaf) node.right;
+        BucketAvlNode previous = node.left;
+        
+        while(previous.right != null) {
+            previous = previous.right;
+        }
+        
+        BucketAvlLeaf neighbor = (BucketAvlLeaf) previous;
+        int total = leaf.count + neighbor.count;
+        
+        if(total <= MAX_BUCKET) {
+            
+            //append keys to neighbor and drop leaf with its routing node
+            System.arraycopy(leaf.keys, 0, neighbor.keys, neighbor.count, leaf.count);
+            neighbor.count = total;
+            
+            return node.left;
+            
+        }
+        
+        //move last keys of neighbor to start of leaf
+        int move = total / 2 - leaf.count;
+        System.arraycopy(leaf.keys, 0, leaf.keys, move, leaf.count);
+        System.arraycopy(neighbor.keys, neighbor.count - move, leaf.keys, 0, move);
+        leaf.count += move;
+        neighbor.count -= move;
+        node.key = leaf.keys[0];
+        
+        return node;
+        
+    }
+    
+    /* A helper function for restoring the balance of a routing node whose
+     * subtrees differ in height by at most two, after an update below it.
+     * The node's height is recalculated, and a single or double rotation is
+     * applied toward the lighter side if the node is unbalanced. Rotations
+     * keep the left to right order of the leaves, so separators stay valid.
+     */
+    private static BucketAvlNode rebalance(BucketAvlNode node) {
+        
+        //update height
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        
+        int balance = balance(node);
+        
+        //left heavy, rotating left child first if it leans right
+        if(balance < -1) {
+            if(balance(node.left) > 0) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        
+        //right heavy, rotating right child first if it leans left
+        } else if(balance > 1) {
+            if(balance(node.right) < 0) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        
+        //otherwise return updated node
+        return node;
+        
+    }
+    
+    /* A helper function for rotating nodes to the left.
+     */
+    private static BucketAvlNode rotateLeft(BucketAvlNode node) {
+        
+        BucketAvlNode newParent = node.right;
+        
+        //rotate nodes
+        node.right = newParent.left;
+        newParent.left = node;
+        
+        //update heights
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        newParent.height = Math.max(height(newParent.left), height(newParent.right)) + 1;
+        
+        return newParent;
+        
+    }
+    
+    /* A helper function for rotating nodes to the right.
+     */
+    private static BucketAvlNode rotateRight(BucketAvlNode node) {
+        
+        BucketAvlNode newParent = node.left;
+        
+        //rotate nodes
+        node.left = newParent.right;
+        newParent.right = node;
+        
+        //update heights
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        newParent.height = Math.max(height(newParent.left), height(newParent.right)) + 1;
+        
+        return newParent;
+        
+    }
+    
+    /**
+     * A method for merging two trees of size m and n in O(m+n) time. Both
+     * trees are sorted into arrays bucket by bucket; if their ranges do not
+     * overlap the arrays are concatenated, and otherwise they are merged
+     * with two pointers, keeping one copy of equal values. The result is
+     * rebuilt into a new tree, and neither input tree is modified.
+     *
+     * @param tree1 The first tree to be merged
+     * @param tree2 The second tree to be merged
+     * @return The merged tree
+     */
+    public static BucketAvlTree mergeTrees(BucketAvlTree tree1, BucketAvlTree tree2) {
+        
+        if(tree1.size == 0 || tree2.size == 0) {
+            return new BucketAvlTree(tree1.size == 0 ? tree2.treeToArray() : tree1.treeToArray());
+        }
+        
+        //order trees so that tree1's values would come first if disjoint
+        if(tree2.max() < tree1.min()) {
+            BucketAvlTree swap = tree1;
+            tree1 = tree2;
+            tree2 = swap;
+        }
+        
+        int[] array1 = tree1.treeToArray();
+        int[] array2 = tree2.treeToArray();
+        int[] mergeArray = new int[array1.length + array2.length];
+        int length;
+        
+        if(array1[array1.length - 1] < array2[0]) {
+            
+            //concatenate sorted arrays
+            System.arraycopy(array1, 0, mergeArray, 0, array1.length);
+            System.arraycopy(array2, 0, mergeArray, array1.length, array2.length);
+            length = mergeArray.length;
+        
+        } else {
+            length = AvlTree.mergeSortedArrays(array1, array1.length, array2,
+                                               array2.length, mergeArray, null);
+        }
+        
+        return new BucketAvlTree(mergeArray, length);
+        
+    }
+
+
+}
@@ -0,0 +1,41 @@
+/**
+ * This class implements nodes for a concurrent AVL binary search tree of
+ * integer values. Like AvlNode it holds a key, a height and two children,
+ * and adds a parent link and a version number used to validate optimistic
+ * reads. Every mutable field is volatile so that readers, which take no
+ * locks, see each change made by a writer holding the node's lock.
+ *
+ * Created as part of an assignment for Foundations of Algorithms, a graduate-
+ * level course at Johns Hopkins University.
+ *
+ * @author Joseph Scheidt
+ * @version Programming Assignment 1
+ */
+class ConcurrentAvlNode {
+    
+    final int key;
+    volatile int height;
+    volatile long version;
+    volatile ConcurrentAvlNode parent;
+    volatile ConcurrentAvlNode left;
+    volatile ConcurrentAvlNode right;
+    
+    /**
+     * A constructor for the class, for a new leaf node.
+     *
+     * @param k the integer key value for this node
+     * @param p the parent of this node
+     */
+    ConcurrentAvlNode(int k, ConcurrentAvlNode p) {
+        
+        key = k;
+        height = 1;
+        version = 0;
+        parent = p;
+        left = null;
+        right = null;
+        
+    }
+
+
+}
@@ -0,0 +1,773 @@
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class implements a thread-safe AVL tree of integers, following the
+ * relaxed-balance design of Bronson, Casper, Chafi and Olukotun ("A
+ * Practical Concurrent Binary Search Tree", PPoPP 2010), restricted to
+ * inserts, lookups and min/max.
+ *
+ * Readers take no locks. Each node carries a version number that a writer
+ * marks while rotating the node down the tree, which is the only change that
+ * can move keys out of the node's subtree. A reader records the version of
+ * each node it passes through and checks that it is unchanged after reading
+ * the next child, retrying from the parent if not, so a search is never
+ * misled by a concurrent rotation and never waits except on the few nodes
+ * being rotated at that moment.
+ *
+ * Writers lock only the nodes they change: an insert locks the parent of the
+ * new leaf, and rebalancing locks a parent, the node being repaired and the
+ * child (and grandchild) rotated with it, always from the top down. Heights
+ * are repaired and rotations applied on the way back up after the insert,
+ * so the tree may be briefly out of balance while writers are active, and
+ * is a strict AVL tree again once they finish.
+ *
+ * Created as part of an assignment for Foundations of Algorithms, a graduate-
+ * level course at Johns Hopkins University.
+ *
+ * @author Joseph Scheidt
+ * @version Programming Assignment 1
+ */
+public class ConcurrentAvlTree {
+    
+    //low bit of a version, set while the node is rotated down
+    private static final long SHRINKING = 1L;
+    
+    //number of spins before blocking on a node being rotated
+    private static final int SPIN_COUNT = 100;
+    
+    //results of an attempted search
+    private static final int NOT_FOUND = 0;
+    private static final int FOUND = 1;
+    private static final int RETRY = 2;
+    
+    //results of checking a node, other than its corrected height
+    private static final int NOTHING_REQUIRED = -1;
+    private static final int REBALANCE_REQUIRED = -2;
+    
+    //result of an attempted min or max that must be retried
+    private static final long RETRY_EXTREME = Long.MIN_VALUE;
+    
+    //result of a min or max on an empty tree
+    private static final long EMPTY = Long.MAX_VALUE;
+    
+    //holder whose right child is the root node; it is never rotated
+    private final ConcurrentAvlNode rootHolder = new ConcurrentAvlNode(Integer.MIN_VALUE, null);
+    
+    //number of tree nodes
+    private final LongAdder size = new LongAdder();
+    
+    /**
+     * A constructor for the class. Initializes an empty tree.
+     */
+    public ConcurrentAvlTree() {
+    
+    }
+    
+    /**
+     * A simple function to return the height of a particular node.
+     * This function helps avoid NullPointerExceptions.
+     *
+     * @param node the node whose height is measured
+     * @return the height of the node
+     */
+    static int height(ConcurrentAvlNode node) {
+        
+        if(node == null) {
+            return 0;
+        } else {
+            return node.height;
+        }
+        
+    }
+    
+    /**
+     * @return the number of key values in the tree
+     */
+    public int size() {
+        
+        return size.intValue();
+        
+    }
+    
+    /* A helper function to wait until a node that is being rotated down the
+     * tree is finished, spinning briefly before blocking on the node's lock,
+     * which the rotating writer holds.
+     */
+    private static void waitUntilShrunk(ConcurrentAvlNode node) {
+        
+        for(int i = 0; i < SPIN_COUNT; i++) {
+            if((node.version & SHRINKING) == 0) {
+                return;
+            }
+            Thread.onSpinWait();
+        }
+        
+        synchronized(node) {
+            //the rotation is over once the lock is free
+        }
+        
+    }
+    
+    /* A helper function to return the child of a node on the side a key
+     * would be found. The root holder's key is the smallest integer, so
+     * every search continues to its right child, the root.
+     */
+    private static ConcurrentAvlNode child(ConcurrentAvlNode node, int key) {
+        
+        return key < node.key ? node.left : node.right;
+        
+    }
+    
+    /**
+     * A method to test whether a key value is in the tree, without locking.
+     *
+     * @param key The key value to look for
+     * @return true if the tree contains the key
+     */
+    public boolean contains(int key) {
+        
+        while(true) {
+            
+            int result = attemptGet(key, rootHolder, rootHolder.version);
+            
+            if(result != RETRY) {
+                return result == FOUND;
+            }
+            
+        }
+        
+    }
+    
+    /* A helper function, called recursively, to search below a node whose
+     * version was nodeVersion when the search arrived. Returns RETRY if the
+     * node has been rotated down since, so the caller must search again.
+     */
+    private int attemptGet(int key, ConcurrentAvlNode node, long nodeVersion) {
+        
+        while(true) {
+            
+            ConcurrentAvlNode child = child(node, key);
+            
+            //node moved, so the child read may be the wrong one
+            if(node.version != nodeVersion) {
+                return RETRY;
+            }
+            
+            if(child == null) {
+                return NOT_FOUND;
+            } else if(child.key == key) {
+                return FOUND;
+            }
+            
+            long childVersion = child.version;
+            
+            //wait out a rotation of the child, then reread it
+            if((childVersion & SHRINKING) != 0) {
+                waitUntilShrunk(child);
+            
+            //descend only if child is still linked and node has not moved
+            } else if(child == child(node, key)) {
+                
+                if(node.version != nodeVersion) {
+                    return RETRY;
+                }
+                
+                int result = attemptGet(key, child, childVersion);
+                
+                if(result != RETRY) {
+                    return result;
+                }
+                
+            }
+            
+        }
+        
+    }
+    
+    /**
+     * A simple function to return the maximum value of a tree, without
+     * locking.
+     *
+     * @return the maximum value of a tree
+     */
+    public int max() {
+        
+        return extreme(false);
+        
+    }
+    
+    /**
+     * A simple function to return the minimum value of a tree, without
+     * locking.
+     *
+     * @return the minimum value of a tree
+     */
+    public int min() {
+        
+        return extreme(true);
+        
+    }
+    
+    /* A helper function to find the leftmost or rightmost key, retrying
+     * until a descent completes without meeting a rotation.
+     */
+    private int extreme(boolean leftMost) {
+        
+        while(true) {
+            
+            long result = attemptExtreme(rootHolder, rootHolder.version, leftMost);
+            
+            if(result == EMPTY) {
+                throw new NoSuchElementException();
+            } else if(result != RETRY_EXTREME) {
+                return (int) result;
+            }
+            
+        }
+        
+    }
+    
+    /* A helper function, called recursively, to follow left or right
+     * children from a node whose version was nodeVersion on arrival, with
+     * the same validation as attemptGet.
+     */
+    private long attemptExtreme(ConcurrentAvlNode node, long nodeVersion, boolean leftMost) {
+        
+        while(true) {
+            
+            ConcurrentAvlNode child = leftMost && node != rootHolder ? node.left : node.right;
+            
+            if(node.version != nodeVersion) {
+                return RETRY_EXTREME;
+            }
+            
+            //no further child, so this node holds the extreme key
+            if(child == null) {
+                return node == rootHolder ? EMPTY : node.key;
+            }
+            
+            long childVersion = child.version;
+            
+            if((childVersion & SHRINKING) != 0) {
+                waitUntilShrunk(child);
+            } else if(child == (leftMost && node != rootHolder ? node.left : node.right)) {
+                
+                if(node.version != nodeVersion) {
+                    return RETRY_EXTREME;
+                }
+                
+                long result = attemptExtreme(child, childVersion, leftMost);
+                
+                if(result != RETRY_EXTREME) {
+                    return result;
+                }
+                
+            }
+            
+        }
+        
+    }
+    
+    /**
+     * A method to insert a key value into the tree. The search for the key's
+     * position is optimistic as in contains; only the parent of the new leaf
+     * is locked to attach it, after which heights are repaired and the tree
+     * rebalanced back up the path.
+     *
+     * @param key The key value to insert
+     * @return true if the key was added, false if it was already present
+     */
+    public boolean insert(int key) {
+        
+        while(true) {
+            
+            int result = attemptInsert(key, rootHolder, rootHolder.version);
+            
+            if(result != RETRY) {
+                return result == NOT_FOUND;
+            }
+            
+        }
+        
+    }
+    
+    /* A helper function, called recursively, to insert a key below a node
+     * whose version was nodeVersion on arrival. Returns NOT_FOUND if the key
+     * was added, FOUND if it was present, and RETRY if the node moved.
+     */
+    private int attemptInsert(int key, ConcurrentAvlNode node, long nodeVersion) {
+        
+        while(true) {
+            
+            ConcurrentAvlNode child = child(node, key);
+            
+            if(node.version != nodeVersion) {
+                return RETRY;
+            }
+            
+            if(child == null) {
+                
+                //attach new leaf, unless node moved or gained a child first
+                synchronized(node) {
+                    
+                    if(node.version != nodeVersion) {
+                        return RETRY;
+                    } else if(child(node, key) != null) {
+                        continue;
+                    }
+                    
+                    ConcurrentAvlNode leaf = new ConcurrentAvlNode(key, node);
+                    
+                    if(key < node.key) {
+                        node.left = leaf;
+                    } else {
+                        node.right = leaf;
+                    }
+                    
+                }
+                
+                size.increment();
+                fixHeightAndRebalance(node);
+                
+                return NOT_FOUND;
+                
+            } else if(child.key == key) {
+                return FOUND;
+            }
+            
+            long childVersion = child.version;
+            
+            if((childVersion & SHRINKING) != 0) {
+                waitUntilShrunk(child);
+            } else if(child == child(node, key)) {
+                
+                if(node.version != nodeVersion) {
+                    return RETRY;
+                }
+                
+                int result = attemptInsert(key, child, childVersion);
+                
+                if(result != RETRY) {
+                    return result;
+                }
+                
+            }
+            
+        }
+        
+    }
+    
+    /* A helper function to return what a node needs: REBALANCE_REQUIRED if
+     * its subtrees differ in height by more than one, its corrected height if
+     * its height is wrong, or NOTHING_REQUIRED.
+     */
+    private static int nodeCondition(ConcurrentAvlNode node) {
+        
+        int heightLeft = height(node.left);
+        int heightRight = height(node.right);
+        int newHeight = Math.max(heightLeft, heightRight) + 1;
+        int balance = heightRight - heightLeft;
+        
+        if(balance < -1 || balance > 1) {
+            return REBALANCE_REQUIRED;
+        }
+        
+        return newHeight != node.height ? newHeight : NOTHING_REQUIRED;
+        
+    }
+    
+    /* A helper function to walk up from a node that may be out of date,
+     * correcting heights under the node's lock and rotating under the locks
+     * of the node's parent and the node, until a node needs nothing.
+     */
+    private void fixHeightAndRebalance(ConcurrentAvlNode node) {
+        
+        while(node != null && node.parent != null) {
+            
+            int condition = nodeCondition(node);
+            
+            if(condition == NOTHING_REQUIRED) {
+                return;
+            }
+            
+            if(condition != REBALANCE_REQUIRED) {
+                
+                synchronized(node) {
+                    node = fixHeight(node);
+                }
+                
+            } else {
+                
+                ConcurrentAvlNode parent = node.parent;
+                
+                //lock parent then node; if node moved, check it again
+                synchronized(parent) {
+                    if(node.parent == parent) {
+                        synchronized(node) {
+                            node = rebalance(parent, node);
+                        }
+                    }
+                }
+                
+            }
+            
+        }
+        
+    }
+    
+    /* A helper function to correct the height of a locked node. Returns the
+     * node if it needs a rotation instead, its parent if the height changed,
+     * or null if nothing further is needed.
+     */
+    private ConcurrentAvlNode fixHeight(ConcurrentAvlNode node) {
+        
+        //root holder has no height to maintain
+        if(node.parent == null) {
+            return null;
+        }
+        
+        int condition = nodeCondition(node);
+        
+        if(condition == REBALANCE_REQUIRED) {
+            return node;
+        } else if(condition == NOTHING_REQUIRED) {
+            return null;
+        }
+        
+        node.height = condition;
+        
+        return node.parent;
+        
+    }
+    
+    /* A helper function to rebalance a node, with it and its parent locked.
+     * Returns the next node that may need repair, or null if none does.
+     */
+    private ConcurrentAvlNode rebalance(ConcurrentAvlNode parent, ConcurrentAvlNode node) {
+        
+        ConcurrentAvlNode left = node.left;
+        ConcurrentAvlNode right = node.right;
+        
+        int heightLeft = height(left);
+        int heightRight = height(right);
+        int newHeight = Math.max(heightLeft, heightRight) + 1;
+        int balance = heightRight - heightLeft;
+        
+        if(balance < -1) {
+            return rebalanceToRight(parent, node, left, heightRight);
+        } else if(balance > 1) {
+            return rebalanceToLeft(parent, node, right, heightLeft);
+        } else if(newHeight != node.height) {
+            node.height = newHeight;
+            return fixHeight(parent);
+        }
+        
+        return null;
+        
+    }
+    
+    /* A helper function to rebalance a left heavy node by rotating it right,
+     * first rotating its left child left if that child leans right. The
+     * child, and grandchild if needed, are locked here.
+     */
+    private ConcurrentAvlNode rebalanceToRight(ConcurrentAvlNode parent, ConcurrentAvlNode node,
+                                               ConcurrentAvlNode left, int heightRight) {
+        
+        synchronized(left) {
+            
+            //left child shrank in the meantime, so check node again
+            if(left.height - heightRight <= 1) {
+                return node;
+            }
+            
+            ConcurrentAvlNode leftRight = left.right;
+            int heightLeftLeft = height(left.left);
+            int heightLeftRight = height(leftRight);
+            
+            if(heightLeftLeft >= heightLeftRight) {
+                return rotateRight(parent, node, left, heightRight, heightLeftLeft,
+                                   leftRight, heightLeftRight);
+            }
+            
+            synchronized(leftRight) {
+                
+                heightLeftRight = leftRight.height;
+                
+                if(heightLeftLeft >= heightLeftRight) {
+                    return rotateRight(parent, node, left, heightRight, heightLeftLeft,
+                                       leftRight, heightLeftRight);
+                }
+                
+                int heightLeftRightLeft = height(leftRight.left);
+                int balance = heightLeftLeft - heightLeftRightLeft;
+                
+                if(balance >= -1 && balance <= 1) {
+                    return rotateRightOverLeft(parent, node, left, heightRight, heightLeftLeft,
+                                               leftRight, heightLeftRightLeft);
+                }
+                
+            }
+            
+            //double rotation would leave left child unbalanced, so fix it first
+            return rebalanceToLeft(node, left, leftRight, heightLeftLeft);
+            
+        }
+        
+    }
+    
+    /* A helper function to rebalance a right heavy node by rotating it left,
+     * first rotating its right child right if that child leans left. The
+     * child, and grandchild if needed, are locked here.
+     */
+    private ConcurrentAvlNode rebalanceToLeft(ConcurrentAvlNode parent, ConcurrentAvlNode node,
+                                              ConcurrentAvlNode right, int heightLeft) {
+        
+        synchronized(right) {
+            
+            //right child shrank in the meantime, so check node again
+            if(right.height - heightLeft <= 1) {
+                return node;
+            }
+            
+            ConcurrentAvlNode rightLeft = right.left;
+            int heightRightLeft = height(rightLeft);
+            int heightRightRight = height(right.right);
+            
+            if(heightRightRight >= heightRightLeft) {
+                return rotateLeft(parent, node, heightLeft, right, rightLeft,
+                                  heightRightLeft, heightRightRight);
+            }
+            
+            synchronized(rightLeft) {
+                
+                heightRightLeft = rightLeft.height;
+                
+                if(heightRightRight >= heightRightLeft) {
+                    return rotateLeft(parent, node, heightLeft, right, rightLeft,
+                                      heightRightLeft, heightRightRight);
+                }
+                
+                int heightRightLeftRight = height(rightLeft.right);
+                int balance = heightRightRight - heightRightLeftRight;
+                
+                if(balance >= -1 && balance <= 1) {
+                    return rotateLeftOverRight(parent, node, heightLeft, right, rightLeft,
+                                               heightRightRight, heightRightLeftRight);
+                }
+                
+            }
+            
+            //double rotation would leave right child unbalanced, so fix it first
+            return rebalanceToRight(node, right, rightLeft, heightRightRight);
+            
+        }
+        
+    }
+    
+    /* A helper function to replace node with newChild as a child of parent.
+     */
+    private static void replaceChild(ConcurrentAvlNode parent, ConcurrentAvlNode node,
+                                     ConcurrentAvlNode newChild) {
+        
+        if(parent.left == node) {
+            parent.left = newChild;
+        } else {
+            parent.right = newChild;
+        }
+        
+        newChild.parent = parent;
+        
+    }
+    
+    /* A helper function to return the node left out of balance by a
+     * rotation, or else to continue correcting heights at the parent.
+     */
+    private ConcurrentAvlNode afterRotation(ConcurrentAvlNode parent,
+                                           ConcurrentAvlNode lower, int balanceLower,
+                                           ConcurrentAvlNode upper, int balanceUpper) {
+        
+        if(balanceLower < -1 || balanceLower > 1) {
+            return lower;
+        } else if(balanceUpper < -1 || balanceUpper > 1) {
+            return upper;
+        }
+        
+        return fixHeight(parent);
+        
+    }
+    
+    /* A helper function to rotate a node right, with parent, node and its
+     * left child locked. The node's version is marked for the duration, as
+     * keys of its former left child leave its subtree.
+     */
+    private ConcurrentAvlNode rotateRight(ConcurrentAvlNode parent, ConcurrentAvlNode node,
+                                          ConcurrentAvlNode left, int heightRight,
+                                          int heightLeftLeft, ConcurrentAvlNode leftRight,
+                                          int heightLeftRight) {
+        
+        long nodeVersion = node.version;
+        node.version = nodeVersion | SHRINKING;
+        
+        //rotate nodes
+        node.left = leftRight;
+        if(leftRight != null) {
+            leftRight.parent = node;
+        }
+        
+        left.right = node;
+        node.parent = left;
+        
+        replaceChild(parent, node, left);
+        
+        //update heights
+        int newHeight = Math.max(heightLeftRight, heightRight) + 1;
+        node.height = newHeight;
+        left.height = Math.max(heightLeftLeft, newHeight) + 1;
+        
+        node.version = (nodeVersion | SHRINKING) + 1;
+        
+        return afterRotation(parent, node, heightRight - heightLeftRight,
+                             left, newHeight - heightLeftLeft);
+        
+    }
+    
+    /* A helper function to rotate a node left, with parent, node and its
+     * right child locked, marking the node's version as in rotateRight.
+     */
+    private ConcurrentAvlNode rotateLeft(ConcurrentAvlNode parent, ConcurrentAvlNode node,
+                                         int heightLeft, ConcurrentAvlNode right,
+                                         ConcurrentAvlNode rightLeft, int heightRightLeft,
+                                         int heightRightRight) {
+        
+        long nodeVersion = node.version;
+        node.version = nodeVersion | SHRINKING;
+        
+        //rotate nodes
+        node.right = rightLeft;
+        if(rightLeft != null) {
+            rightLeft.parent = node;
+        }
+        
+        right.left = node;
+        node.parent = right;
+        
+        replaceChild(parent, node, right);
+        
+        //update heights
+        int newHeight = Math.max(heightLeft, heightRightLeft) + 1;
+        node.height = newHeight;
+        right.height = Math.max(newHeight, heightRightRight) + 1;
+        
+        node.version = (nodeVersion | SHRINKING) + 1;
+        
+        return afterRotation(parent, node, heightRightLeft - heightLeft,
+                             right, heightRightRight - newHeight);
+        
+    }
+    
+    /* A helper function to rotate a node's left child left and then the
+     * node right, with parent, node, left child and its right child locked.
+     * Both the node and its left child move down, so both are marked.
+     */
+    private ConcurrentAvlNode rotateRightOverLeft(ConcurrentAvlNode parent, ConcurrentAvlNode node,
+                                                  ConcurrentAvlNode left, int heightRight,
+                                                  int heightLeftLeft, ConcurrentAvlNode leftRight,
+                                                  int heightLeftRightLeft) {
+        
+        long nodeVersion = node.version;
+        long leftVersion = left.version;
+        
+        ConcurrentAvlNode leftRightLeft = leftRight.left;
+        ConcurrentAvlNode leftRightRight = leftRight.right;
+        int heightLeftRightRight = height(leftRightRight);
+        
+        node.version = nodeVersion | SHRINKING;
+        left.version = leftVersion | SHRINKING;
+        
+        //rotate nodes
+        node.left = leftRightRight;
+        if(leftRightRight != null) {
+            leftRightRight.parent = node;
+        }
+        
+        left.right = leftRightLeft;
+        if(leftRightLeft != null) {
+            leftRightLeft.parent = left;
+        }
+        
+        leftRight.left = left;
+        left.parent = leftRight;
+        leftRight.right = node;
+        node.parent = leftRight;
+        
+        replaceChild(parent, node, leftRight);
+        
+        //update heights
+        int newHeight = Math.max(heightLeftRightRight, heightRight) + 1;
+        node.height = newHeight;
+        int newLeftHeight = Math.max(heightLeftLeft, heightLeftRightLeft) + 1;
+        left.height = newLeftHeight;
+        leftRight.height = Math.max(newLeftHeight, newHeight) + 1;
+        
+        node.version = (nodeVersion | SHRINKING) + 1;
+        left.version = (leftVersion | SHRINKING) + 1;
+        
+        return afterRotation(parent, node, heightRight - heightLeftRightRight,
+                             leftRight, newHeight - newLeftHeight);
+        
+    }
+    
+    /* A helper function to rotate a node's right child right and then the
+     * node left, mirroring rotateRightOverLeft.
+     */
+    private ConcurrentAvlNode rotateLeftOverRight(ConcurrentAvlNode parent, ConcurrentAvlNode node,
+                                                  int heightLeft, ConcurrentAvlNode right,
+                                                  ConcurrentAvlNode rightLeft, int heightRightRight,
+                                                  int heightRightLeftRight) {
+        
+        long nodeVersion = node.version;
+        long rightVersion = right.version;
+        
+        ConcurrentAvlNode rightLeftLeft = rightLeft.left;
+        ConcurrentAvlNode rightLeftRight = rightLeft.right;
+        int heightRightLeftLeft = height(rightLeftLeft);
+        
+        node.version = nodeVersion | SHRINKING;
+        right.version = rightVersion | SHRINKING;
+        
+        //rotate nodes
+        node.right = rightLeftLeft;
+        if(rightLeftLeft != null) {
+            rightLeftLeft.parent = node;
+        }
+        
+        right.left = rightLeftRight;
+        if(rightLeftRight != null) {
+            rightLeftRight.parent = right;
+        }
+        
+        rightLeft.right = right;
+        right.parent = rightLeft;
+        rightLeft.left = node;
+        node.parent = rightLeft;
+        
+        replaceChild(parent, node, rightLeft);
+        
+        //update heights
+        int newHeight = Math.max(heightLeft, heightRightLeftLeft) + 1;
+        node.height = newHeight;
+        int newRightHeight = Math.max(heightRightLeftRight, heightRightRight) + 1;
+        right.height = newRightHeight;
+        rightLeft.height = Math.max(newHeight, newRightHeight) + 1;
+        
+        node.version = (nodeVersion | SHRINKING) + 1;
+        right.version = (rightVersion | SHRINKING) + 1;
+        
+        return afterRotation(parent, node, heightRightLeftLeft - heightLeft,
+                             rightLeft, newRightHeight - newHeight);
+        
+    }
+
+
+}
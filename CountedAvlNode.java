@@ -0,0 +1,30 @@
+/**
+ * This class implements nodes for a multiset AVL tree, adding to AvlNode the
+ * number of times the node's key was inserted. Only multiset trees create
+ * these nodes, so trees of distinct keys do not pay for the count.
+ * Created as part of an assignment for Foundations of Algorithms, a graduate-
+ * level course at Johns Hopkins University.
+ *
+ * @author Joseph Scheidt
+ * @version Programming Assignment 1
+ */
+public class CountedAvlNode extends AvlNode {
+
+    //number of times the key was inserted
+    int count;
+    
+    /**
+     * A constructor for the class, for a root node.
+     *
+     * @param k the integer key value for this node
+     */
+    public CountedAvlNode(int k) {
+        
+        //intialize as a plain node, with count 1
+        super(k);
+        count = 1;
+        
+    }
+
+
+}
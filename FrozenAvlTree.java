@@ -0,0 +1,198 @@
+import java.util.NoSuchElementException;
+
+/**
+ * This class implements an immutable, read-optimized snapshot of an AVL
+ * tree of integers. The keys are stored in one int array in Eytzinger (breadth
+ * first) order: the root is at index 1, and the children of the node at
+ * index k are at 2k and 2k + 1. A search therefore needs no pointers, the
+ * top levels of the tree share a few cache lines, and each step computes
+ * the next index from a comparison rather than branching on it, so the
+ * processor never mispredicts the direction of the search.
+ *
+ * Created as part of an assignment for Foundations of Algorithms, a graduate-
+ * level course at Johns Hopkins University.
+ *
+ * @author Joseph Scheidt
+ * @version Programming Assignment 1
+ */
+public class FrozenAvlTree {
+    
+    //keys in Eytzinger order, starting at index 1
+    private final int[] layout;
+    
+    //number of keys
+    private final int size;
+    
+    /**
+     * A constructor for the class. Takes a sorted integer array and lays it
+     * out in Eytzinger order in O(n) time.
+     *
+     * @param data the sorted integer array to freeze
+     */
+    public FrozenAvlTree(int[] data) {
+        
+        size = data.length;
+        layout = new int[size + 1];
+        
+        fill(data, 0, 1);
+        
+    }
+    
+    /* A helper function, called recursively, to fill the subtree rooted at
+     * index k from the sorted array in the order left subtree, node, right
+     * subtree, starting from array index i. Returns the next array index.
+     */
+    private int fill(int[] data, int i, int k) {
+        
+        if(k <= size) {
+            i = fill(data, i, 2 * k);
+            layout[k] = data[i++];
+            i = fill(data, i, 2 * k + 1);
+        }
+        
+        return i;
+        
+    }
+    
+    /**
+     * @return the number of key values in the tree
+     */
+    public int size() {
+        
+        return size;
+        
+    }
+    
+    /* A helper function to return the index of the smallest key not less
+     * than key, or 0 if there is none. The search appends one bit per level
+     * to k, 1 for each step right; at the end, the trailing 1 bits (steps
+     * right past smaller keys) and the step left before them are shifted
+     * off, leaving the last node where the search went left.
+     */
+    private int ceilingIndex(int key) {
+        
+        int k = 1;
+        
+        while(k <= size) {
+            k = 2 * k + (layout[k] < key ? 1 : 0);
+        }
+        
+        return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+        
+    }
+    
+    /* A helper function to return the index of the largest key not greater
+     * than key, or 0 if there is none, by the mirror image of ceilingIndex:
+     * the trailing 0 bits and the step right before them are shifted off.
+     */
+    private int floorIndex(int key) {
+        
+        int k = 1;
+        
+        while(k <= size) {
+            k = 2 * k + (layout[k] <= key ? 1 : 0);
+        }
+        
+        return k >>> (Integer.numberOfTrailingZeros(k) + 1);
+        
+    }
+    
+    /**
+     * A method to test whether a key value is in the tree.
+     *
+     * @param key The key value to look for
+     * @return true if the tree contains the key
+     */
+    public boolean contains(int key) {
+        
+        int k = ceilingIndex(key);
+        
+        return k != 0 && layout[k] == key;
+        
+    }
+    
+    /**
+     * A method to return the smallest key value in the tree that is greater
+     * than or equal to a given key.
+     *
+     * @param key The key value to search for
+     * @return the smallest key not less than key
+     * @throws NoSuchElementException if every key is less than key
+     */
+    public int ceiling(int key) {
+        
+        int k = ceilingIndex(key);
+        
+        if(k == 0) {
+            throw new NoSuchElementException();
+        }
+        
+        return layout[k];
+        
+    }
+    
+    /**
+     * A method to return the largest key value in the tree that is less than
+     * or equal to a given key.
+     *
+     * @param key The key value to search for
+     * @return the largest key not greater than key
+     * @throws NoSuchElementException if every key is greater than key
+     */
+    public int floor(int key) {
+        
+        int k = floorIndex(key);
+        
+        if(k == 0) {
+            throw new NoSuchElementException();
+        }
+        
+        return layout[k];
+        
+    }
+    
+    /**
+     * A method to turn the frozen tree back into a sorted array of integers,
+     * in O(n) time.
+     *
+     * @return a sorted integer array
+     */
+    public int[] treeToArray() {
+        
+        int[] returnArray = new int[size];
+        
+        sortTree(returnArray, 0, 1);
+        
+        return returnArray;
+        
+    }
+    
+    /* A helper function, called recursively, to store the subtree rooted at
+     * index k in the array from index i, returning the next array index.
+     */
+    private int sortTree(int[] treeArray, int i, int k) {
+        
+        if(k <= size) {
+            i = sortTree(treeArray, i, 2 * k);
+            treeArray[i++] = layout[k];
+            i = sortTree(treeArray, i, 2 * k + 1);
+        }
+        
+        return i;
+        
+    }
+    
+    /**
+     * A method to build an ordinary, mutable AVL tree from the frozen tree's
+     * keys in O(n) time.
+     *
+     * @return a new AVL tree
+     */
+    public AvlTree thaw() {
+        
+        return new AvlTree(treeToArray());
+        
+    }
+
+
+}
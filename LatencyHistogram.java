@@ -0,0 +1,139 @@
+import java.util.Arrays;
+
+/**
+ * This class implements a histogram of latencies in nanoseconds with
+ * log-linear buckets, in the manner of an HDR histogram. Values below 128
+ * are counted exactly; above that, each power of two is divided into 64
+ * equal buckets, so any recorded value is reported to within 1/64 of itself
+ * (about 1.6%) while the whole range of a long fits in under 4,000 counters.
+ * Recording is a few shifts and an array increment, and allocates nothing.
+ *
+ * Created as part of an assignment for Foundations of Algorithms, a graduate-
+ * level course at Johns Hopkins University.
+ *
+ * @author Joseph Scheidt
+ * @version Programming Assignment 1
+ */
+public class LatencyHistogram {
+    
+    //values below 2^SUB_BUCKET_BITS are counted exactly
+    private static final int SUB_BUCKET_BITS = 7;
+    
+    //number of buckets per power of two above the exact range
+    private static final int HALF_SUB_BUCKETS = 1 << (SUB_BUCKET_BITS - 1);
+    
+    //count of values recorded in each bucket
+    private final long[] counts = new long[bucketIndex(Long.MAX_VALUE) + 1];
+    
+    //number of values recorded and largest value recorded
+    private long total;
+    private long max;
+    
+    /* A helper function to return the bucket of a non-negative value. Small
+     * values are their own bucket; a larger value keeps only its top
+     * SUB_BUCKET_BITS bits, and the number of bits dropped picks the range.
+     */
+    private static int bucketIndex(long value) {
+        
+        if(value < 2 * HALF_SUB_BUCKETS) {
+            return (int) value;
+        }
+        
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        
+        return (shift << (SUB_BUCKET_BITS - 1)) + (int) (value >>> shift);
+        
+    }
+    
+    /* A helper function to return the largest value counted in a bucket.
+     */
+    private static long highestValue(int index) {
+        
+        if(index < 2 * HALF_SUB_BUCKETS) {
+            return index;
+        }
+        
+        int shift = index / HALF_SUB_BUCKETS - 1;
+        long subBucket = index - (long) shift * HALF_SUB_BUCKETS;
+        
+        return ((subBucket + 1) << shift) - 1;
+        
+    }
+    
+    /**
+     * A method to record one latency.
+     *
+     * @param nanos the latency in nanoseconds; negative values count as 0
+     */
+    public void record(long nanos) {
+        
+        long value = Math.max(0, nanos);
+        
+        counts[bucketIndex(value)]++;
+        total++;
+        max = Math.max(max, value);
+        
+    }
+    
+    /**
+     * A method to return the latency at or below which a given percentage
+     * of the recorded latencies fall, to within the precision of a bucket.
+     *
+     * @param percentile the percentage, from 0 to 100
+     * @return the latency in nanoseconds, or 0 if nothing is recorded
+     */
+    public long valueAtPercentile(double percentile) {
+        
+        if(total == 0) {
+            return 0;
+        }
+        
+        //rank of the value wanted, counting from 1
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        
+        for(int i = 0; i < counts.length; i++) {
+            
+            seen += counts[i];
+            
+            if(seen >= rank) {
+                return Math.min(highestValue(i), max);
+            }
+            
+        }
+        
+        return max;
+        
+    }
+    
+    /**
+     * @return the number of latencies recorded
+     */
+    public long count() {
+        
+        return total;
+        
+    }
+    
+    /**
+     * @return the largest latency recorded, in nanoseconds
+     */
+    public long max() {
+        
+        return max;
+        
+    }
+    
+    /**
+     * A method to forget every recorded latency.
+     */
+    public void reset() {
+        
+        Arrays.fill(counts, 0);
+        total = 0;
+        max = 0;
+        
+    }
+
+
+}
@@ -0,0 +1,298 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+
+/**
+ * This class implements a read-only AVL tree of integers answered directly
+ * from a memory-mapped file, so a saved tree can be reopened in O(1) time
+ * without creating any nodes, and several processes mapping the same file
+ * share one copy of it in the page cache.
+ *
+ * The file holds a 12 byte header (a magic number, the format version and
+ * the number of keys) followed by the keys in ascending order, all as
+ * little-endian 32-bit integers. The sorted keys are an implicit balanced
+ * tree: the root is the middle key, and the subtrees are the middle keys of
+ * the halves on either side, exactly as the AvlTree array constructor would
+ * lay them out. A lookup follows the same root-to-leaf path as in that tree,
+ * visiting O(lg n) keys.
+ *
+ * A mapping is limited to 2 GB, so a file can hold about 500 million keys.
+ *
+ * Created as part of an assignment for Foundations of Algorithms, a graduate-
+ * level course at Johns Hopkins University.
+ *
+ * @author Joseph Scheidt
+ * @version Programming Assignment 1
+ */
+public class MappedAvlTree {
+    
+    //"AVLT" in ASCII
+    static final int MAGIC = 0x41564C54;
+    static final int FORMAT_VERSION = 1;
+    
+    //header size in ints and bytes
+    private static final int HEADER_INTS = 3;
+    private static final int HEADER_BYTES = HEADER_INTS * Integer.BYTES;
+    
+    //keys written to the file per buffer
+    private static final int WRITE_BUFFER_INTS = 8192;
+    
+    //keys of the mapped file, in ascending order
+    private final IntBuffer keys;
+    
+    //number of keys
+    private final int size;
+    
+    /* A private constructor for the class, over an already checked view of
+     * the mapped keys.
+     */
+    private MappedAvlTree(IntBuffer keys, int size) {
+        
+        this.keys = keys;
+        this.size = size;
+        
+    }
+    
+    /**
+     * A method to save an AVL tree to a file in the mapped format. The keys
+     * are streamed from the tree in sorted order, without first copying the
+     * tree into an array.
+     *
+     * @param tree the tree to save
+     * @param path the file to write, replaced if it exists
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(AvlTree tree, Path path) throws IOException {
+        
+        ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_INTS * Integer.BYTES)
+                                      .order(ByteOrder.LITTLE_ENDIAN);
+        
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                                                   StandardOpenOption.WRITE,
+                                                   StandardOpenOption.TRUNCATE_EXISTING)) {
+            
+            //header
+            buffer.putInt(MAGIC);
+            buffer.putInt(FORMAT_VERSION);
+            buffer.putInt(tree.size());
+            
+            //keys in sorted order, writing out each full buffer
+            AvlIntIterator iterator = tree.iterator();
+            
+            while(iterator.hasNext()) {
+                
+                if(!buffer.hasRemaining()) {
+                    writeFully(channel, buffer);
+                }
+                
+                buffer.putInt(iterator.nextInt());
+                
+            }
+            
+            writeFully(channel, buffer);
+            
+        }
+        
+    }
+    
+    /* A helper function to write all of a buffer's contents to a channel and
+     * clear it for reuse.
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        
+        buffer.flip();
+        
+        while(buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        
+        buffer.clear();
+        
+    }
+    
+    /**
+     * A method to open a file in the mapped format. The file is mapped into
+     * memory read-only and its header is checked; keys are read from the
+     * mapping only when needed.
+     *
+     * @param path the file to open
+     * @return the mapped tree
+     * @throws IOException if the file cannot be read or is not in the format
+     */
+    public static MappedAvlTree open(Path path) throws IOException {
+        
+        MappedByteBuffer mapping;
+        
+        //the mapping stays valid after the channel is closed
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            
+            if(channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("not a mappable AVL tree file: " + path);
+            }
+            
+            mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            
+        }
+        
+        IntBuffer ints = mapping.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        int size = ints.get(2);
+        
+        if(ints.get(0) != MAGIC || ints.get(1) != FORMAT_VERSION
+           || size < 0 || size != ints.capacity() - HEADER_INTS) {
+            throw new IOException("not a mappable AVL tree file: " + path);
+        }
+        
+        return new MappedAvlTree(ints.position(HEADER_INTS).slice(), size);
+        
+    }
+    
+    /**
+     * @return the number of key values in the tree
+     */
+    public int size() {
+        
+        return size;
+        
+    }
+    
+    /**
+     * A method to test whether a key value is in the tree, following the path
+     * from the implicit root as an AvlTree built from the same keys would.
+     *
+     * @param key The key value to look for
+     * @return true if the tree contains the key
+     */
+    public boolean contains(int key) {
+        
+        int beg = 0;
+        int end = size - 1;
+        
+        while(beg <= end) {
+            
+            //middle of subarray is the subtree's root
+            int middle = beg + (end - beg) / 2;
+            int nodeKey = keys.get(middle);
+            
+            if(nodeKey > key) {
+                end = middle - 1;
+            } else if(nodeKey < key) {
+                beg = middle + 1;
+            } else {
+                return true;
+            }
+            
+        }
+        
+        return false;
+        
+    }
+    
+    /**
+     * A simple function to return the maximum value of a tree.
+     *
+     * @return the maximum value of a tree
+     */
+    public int max() {
+        
+        if(size == 0) {
+            throw new NoSuchElementException();
+        }
+        
+        return keys.get(size - 1);
+        
+    }
+    
+    /**
+     * A simple function to return the minimum value of a tree.
+     *
+     * @return the minimum value of a tree
+     */
+    public int min() {
+        
+        if(size == 0) {
+            throw new NoSuchElementException();
+        }
+        
+        return keys.get(0);
+        
+    }
+    
+    /* A helper function to return the index of the first key greater than
+     * key, or of the first key not smaller than key if inclusive is false.
+     */
+    private int bound(int key, boolean inclusive) {
+        
+        int low = 0;
+        int high = size;
+        
+        while(low < high) {
+            
+            int middle = low + (high - low) / 2;
+            int nodeKey = keys.get(middle);
+            
+            if(nodeKey < key || (inclusive && nodeKey == key)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+            
+        }
+        
+        return low;
+        
+    }
+    
+    /**
+     * A method to copy the key values of the tree from lo to hi, inclusive,
+     * into a caller's array in sorted order, as AvlTree.rangeToArray does.
+     * The range is found in O(lg n) time and copied in bulk from the mapping.
+     *
+     * @param lo The smallest key value to copy
+     * @param hi The largest key value to copy
+     * @param dst The array to copy into
+     * @param offset The index in dst of the first key copied
+     * @return the number of keys copied
+     */
+    public int rangeToArray(int lo, int hi, int[] dst, int offset) {
+        
+        if(lo > hi) {
+            return 0;
+        }
+        
+        int first = bound(lo, false);
+        int count = bound(hi, true) - first;
+        
+        if(offset < 0 || offset > dst.length - count) {
+            throw new IndexOutOfBoundsException(count + " keys at offset " + offset
+                                                + " in array of length " + dst.length);
+        }
+        
+        keys.get(first, dst, offset, count);
+        
+        return count;
+        
+    }
+    
+    /**
+     * A method to create an ordinary AvlTree holding the keys of the mapped
+     * tree, in O(n) time.
+     *
+     * @return a new AVL tree
+     */
+    public AvlTree toAvlTree() {
+        
+        int[] data = new int[size];
+        keys.get(0, data, 0, size);
+        
+        return new AvlTree(data);
+        
+    }
+
+
+}
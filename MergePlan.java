@@ -0,0 +1,116 @@
+/**
+ * This class implements the result of planning a merge of two AVL trees:
+ * the strategy chosen, the sizes of the trees, the number of keys of each
+ * tree that fall in the range shared by both, and the estimated cost of the
+ * chosen strategy. Costs are estimated in steps of an insert's descent, so
+ * that the strategies can be compared with one another.
+ *
+ * Created as part of an assignment for Foundations of Algorithms, a graduate-
+ * level course at Johns Hopkins University.
+ *
+ * @author Joseph Scheidt
+ * @version Programming Assignment 1
+ */
+public class MergePlan {
+    
+    //chosen way to merge the trees
+    private final MergeStrategy strategy;
+    
+    //sizes of the trees
+    private final int size1;
+    private final int size2;
+    
+    //number of keys of each tree between the larger minimum and smaller maximum
+    private final int overlap1;
+    private final int overlap2;
+    
+    //estimated cost of the chosen strategy
+    private final long cost;
+    
+    /**
+     * A constructor for the class.
+     *
+     * @param strategy the chosen way to merge the trees
+     * @param size1 the size of the first tree
+     * @param size2 the size of the second tree
+     * @param overlap1 the number of keys of the first tree in the shared range
+     * @param overlap2 the number of keys of the second tree in the shared range
+     * @param cost the estimated cost of the chosen strategy
+     */
+    MergePlan(MergeStrategy strategy, int size1, int size2,
+              int overlap1, int overlap2, long cost) {
+        
+        this.strategy = strategy;
+        this.size1 = size1;
+        this.size2 = size2;
+        this.overlap1 = overlap1;
+        this.overlap2 = overlap2;
+        this.cost = cost;
+        
+    }
+    
+    /**
+     * @return the chosen way to merge the trees
+     */
+    public MergeStrategy strategy() {
+        
+        return strategy;
+        
+    }
+    
+    /**
+     * @return the size of the first tree
+     */
+    public int size1() {
+        
+        return size1;
+        
+    }
+    
+    /**
+     * @return the size of the second tree
+     */
+    public int size2() {
+        
+        return size2;
+        
+    }
+    
+    /**
+     * @return the number of keys of the first tree in the shared range
+     */
+    public int overlap1() {
+        
+        return overlap1;
+        
+    }
+    
+    /**
+     * @return the number of keys of the second tree in the shared range
+     */
+    public int overlap2() {
+        
+        return overlap2;
+        
+    }
+    
+    /**
+     * @return the estimated cost of the chosen strategy
+     */
+    public long cost() {
+        
+        return cost;
+        
+    }
+    
+    @Override
+    public String toString() {
+        
+        return strategy + " size1=" + size1 + " size2=" + size2
+               + " overlap1=" + overlap1 + " overlap2=" + overlap2
+               + " cost=" + cost;
+        
+    }
+
+
+}
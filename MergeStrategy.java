@@ -0,0 +1,34 @@
+/**
+ * This enumeration lists the ways AVL trees can be merged, so that the
+ * path taken by each merge can be counted and reported.
+ *
+ * Created as part of an assignment for Foundations of Algorithms, a graduate-
+ * level course at Johns Hopkins University.
+ *
+ * @author Joseph Scheidt
+ * @version Programming Assignment 1
+ */
+public enum MergeStrategy {
+    
+    //ranges do not overlap; both trees sorted, concatenated and rebuilt
+    DISJOINT,
+    
+    //smaller tree sorted and inserted key by key into larger tree
+    INSERT,
+    
+    //both trees sorted, merged with two pointers and rebuilt
+    LINEAR,
+    
+    //split and join union run as fork/join tasks
+    PARALLEL_UNION,
+    
+    //many trees streamed through a min-heap of their next keys and built once
+    K_WAY,
+    
+    //ranges do not overlap; shorter tree joined into the spine of the taller
+    CONCAT,
+    
+    //overlapping range split out of both trees and merged, pieces joined back
+    SPLICE
+    
+}
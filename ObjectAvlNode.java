@@ -0,0 +1,33 @@
+/**
+ * This class implements nodes for an AVL binary search tree of keys
+ * ordered by a Comparator, as AvlNode does for integer values.
+ * Created as part of an assignment for Foundations of Algorithms, a graduate-
+ * level course at Johns Hopkins University.
+ *
+ * @author Joseph Scheidt
+ * @version Programming Assignment 1
+ */
+public class ObjectAvlNode<K> {
+
+    ObjectAvlNode<K> left;
+    ObjectAvlNode<K> right;
+    int height;
+    K key;
+    
+    /**
+     * A constructor for the class, for a root node.
+     *
+     * @param k the key value for this node
+     */
+    public ObjectAvlNode(K k) {
+        
+        //intialize pointers to null, height to 1, key to paramater value
+        left = null;
+        right = null;
+        height = 1;
+        key = k;
+        
+    }
+
+
+}
@@ -0,0 +1,451 @@
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+/**
+ * This class implements an AVL tree of arbitrary keys ordered by a
+ * Comparator, with the same functions as AvlTree for constructing a tree from
+ * a sorted array, sorting a tree into an array, inserting keys and merging
+ * two trees. For int, long and double keys the specialized AvlTree,
+ * LongAvlTree and DoubleAvlTree avoid both boxing and the comparator call.
+ *
+ * Created as part of an assignment for Foundations of Algorithms, a graduate-
+ * level course at Johns Hopkins University.
+ *
+ * @author Joseph Scheidt
+ * @version Programming Assignment 1
+ */
+public class ObjectAvlTree<K> {
+    
+    //root node for the tree
+    ObjectAvlNode<K> root;
+    
+    //number of tree nodes
+    int size;
+    
+    //ordering of the keys
+    final Comparator<? super K> comparator;
+    
+    /**
+     * A simple function to return the height of a particular node.
+     * This function helps avoid NullPointerExceptions.
+     *
+     * @param node the node whose height is measured
+     * @return the height of the node
+     */
+    public static int height(ObjectAvlNode<?> node) {
+        
+        if(node == null) {
+            return 0;
+        } else {
+            return node.height;
+        }
+        
+    }
+    
+    /**
+     * A simple function to return the balance of a particular node.
+     * This function helps avoid NullPointerExceptions.
+     *
+     * @param node the node whose balance is measured
+     * @return the balance of the node
+     */
+    public static int balance(ObjectAvlNode<?> node) {
+        
+        if(node == null) {
+            return 0;
+        } else {
+            return height(node.right) - height(node.left);
+        }
+        
+    }
+    
+    /* A helper function to compare two keys, returning a negative number,
+     * zero or a positive number as the first is less than, equal to or
+     * greater than the second according to the tree's comparator.
+     */
+    private int compare(K key1, K key2) {
+        
+        return comparator.compare(key1, key2);
+        
+    }
+    
+    /**
+     * A constructor for the class. Initializes an empty tree.
+     *
+     * @param comparator the ordering of the keys
+     */
+    public ObjectAvlTree(Comparator<? super K> comparator) {
+        
+        root = null;
+        size = 0;
+        this.comparator = comparator;
+        
+    }
+    
+    /**
+     * A constructor for the class. Takes a sorted array and builds a complete
+     * AVL tree in O(n) time, using divide and conquer and recursion on
+     * smaller arrays to assign each value to a node.
+     *
+     * @param data the array to transform into an AVL tree, sorted by the
+     * comparator
+     * @param comparator the ordering of the keys
+     */
+    public ObjectAvlTree(K[] data, Comparator<? super K> comparator) {
+        
+        this(data, data.length, comparator);
+        
+    }
+    
+    /* A private constructor to build a tree from the first length values of
+     * a sorted array.
+     */
+    private ObjectAvlTree(Object[] data, int length, Comparator<? super K> comparator) {
+        
+        root = length == 0 ? null : buildTree(data, 0, length - 1);
+        size = length;
+        this.comparator = comparator;
+        
+    }
+    
+    /* A helper function, called recursively, to build an AVL tree from the
+     * sorted values between beg and end, taking the middle value as the root
+     * and building the halves on either side as its subtrees.
+     */
+    @SuppressWarnings("unchecked")
+    private static <K> ObjectAvlNode<K> buildTree(Object[] data, int beg, int end) {
+        
+        //find middle of subarray and create node from middle value
+        int middle = beg + (end - beg) / 2;
+        ObjectAvlNode<K> node = new ObjectAvlNode<K>((K) data[middle]);
+        
+        //assign remaining values to left and right subtrees
+        if(beg < middle) {
+            node.left = buildTree(data, beg, middle - 1);
+        }
+        
+        if(middle < end) {
+            node.right = buildTree(data, middle + 1, end);
+        }
+        
+        //calculate node's height
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        
+        return node;
+        
+    }
+    
+    /**
+     * A simple function to return the maximum value of a tree.
+     *
+     * @return the maximum value of a tree
+     * @throws NoSuchElementException if the tree is empty
+     */
+    public K max() {
+        
+        //an empty tree has no key to return
+        if(root == null) {
+            throw new NoSuchElementException();
+        }
+        
+        ObjectAvlNode<K> rightMost = root;
+        
+        while(rightMost.right != null) {
+            rightMost = rightMost.right;
+        }
+        
+        return rightMost.key;
+        
+    }
+    
+    /**
+     * A simple function to return the minimum value of a tree.
+     *
+     * @return the minimum value of a tree
+     * @throws NoSuchElementException if the tree is empty
+     */
+    public K min() {
+        
+        //an empty tree has no key to return
+        if(root == null) {
+            throw new NoSuchElementException();
+        }
+        
+        ObjectAvlNode<K> leftMost = root;
+        
+        while(leftMost.left != null) {
+            leftMost = leftMost.left;
+        }
+        
+        return leftMost.key;
+        
+    }
+    
+    /**
+     * A method to test whether a key value is in the tree.
+     *
+     * @param key The key value to look for
+     * @return true if the tree contains the key
+     */
+    public boolean contains(K key) {
+        
+        ObjectAvlNode<K> node = root;
+        
+        while(node != null) {
+            
+            int comparison = compare(key, node.key);
+            
+            if(comparison < 0) {
+                node = node.left;
+            } else if(comparison > 0) {
+                node = node.right;
+            } else {
+                return true;
+            }
+            
+        }
+        
+        return false;
+        
+    }
+    
+    /**
+     * A method to turn the tree into a sorted array in O(n) time, in the
+     * order of left subtree, current node, right subtree, keeping the path
+     * back up the tree on an explicit stack.
+     *
+     * @return a sorted array
+     */
+    public Object[] treeToArray() {
+        
+        Object[] returnArray = new Object[size];
+        @SuppressWarnings("unchecked")
+        ObjectAvlNode<K>[] stack = (ObjectAvlNode<K>[]) new ObjectAvlNode<?>[height(root)];
+        int top = 0;
+        int index = 0;
+        ObjectAvlNode<K> node = root;
+        
+        while(node != null || top > 0) {
+            
+            //save path down to leftmost node of subtree
+            while(node != null) {
+                stack[top++] = node;
+                node = node.left;
+            }
+            
+            //add next node's key value to array, then continue on the right
+            node = stack[--top];
+            returnArray[index++] = node.key;
+            node = node.right;
+            
+        }
+        
+        return returnArray;
+        
+    }
+    
+    /**
+     * A method to insert a key value into the tree.
+     *
+     * @param key The key value to insert
+     */
+    public void insert(K key) {
+        
+        root = insert(root, key);
+        
+    }
+    
+    /**
+     * A method to insert a key value below a node. After the new node is
+     * created, the method bubbles back up the path of the insert, to rotate
+     * nodes as necessary in order to maintain the balanced properties of the
+     * tree.
+     *
+     * @param node The node to test for insertion
+     * @param key The key value for the node
+     * @return the updated node
+     */
+    public ObjectAvlNode<K> insert(ObjectAvlNode<K> node, K key) {
+        
+        //create new node if empty, otherwise send to right or left child
+        if(node == null) {
+            size++;
+            return new ObjectAvlNode<K>(key);
+        }
+        
+        int comparison = compare(key, node.key);
+        
+        if(comparison < 0) {
+            node.left = insert(node.left, key);
+        } else if(comparison > 0) {
+            node.right = insert(node.right, key);
+        } else {
+            return node;
+        }
+        
+        //update height for all parent nodes
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        
+        int balance = balance(node);
+        
+        //two cases if tree is left heavy
+        if(balance < -1 && compare(key, node.left.key) < 0) {
+            return rotateRight(node);
+        } else if(balance < -1) {
+            node.left = rotateLeft(node.left);
+            return rotateRight(node);
+        
+        //two cases if tree is right heavy
+        } else if(balance > 1 && compare(key, node.right.key) > 0) {
+            return rotateLeft(node);
+        } else if(balance > 1) {
+            node.right = rotateRight(node.right);
+            return rotateLeft(node);
+        }
+        
+        return node;
+        
+    }
+    
+    /* A helper function for rotating nodes to the left.
+     */
+    private static <K> ObjectAvlNode<K> rotateLeft(ObjectAvlNode<K> node) {
+        
+        ObjectAvlNode<K> newParent = node.right;
+        
+        //rotate nodes
+        node.right = newParent.left;
+        newParent.left = node;
+        
+        //update heights
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        newParent.height = Math.max(height(newParent.left), height(newParent.right)) + 1;
+        
+        return newParent;
+        
+    }
+    
+    /* A helper function for rotating nodes to the right.
+     */
+    private static <K> ObjectAvlNode<K> rotateRight(ObjectAvlNode<K> node) {
+        
+        ObjectAvlNode<K> newParent = node.left;
+        
+        //rotate nodes
+        node.left = newParent.right;
+        newParent.right = node;
+        
+        //update heights
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        newParent.height = Math.max(height(newParent.left), height(newParent.right)) + 1;
+        
+        return newParent;
+        
+    }
+    
+    /**
+     * A method for merging two trees of size m and n, as AvlTree.mergeTrees
+     * does. If the ranges of values do not overlap, both trees are sorted
+     * into arrays, concatenated and rebuilt in O(m+n) time. Otherwise the
+     * smaller tree is sorted into an array and its elements are inserted one
+     * by one into the larger tree, which is changed and returned. Both trees
+     * are expected to share the same ordering; the merged tree takes tree1's
+     * comparator. If either tree is empty, the other is returned unchanged.
+     *
+     * @param tree1 The first tree to be merged
+     * @param tree2 The second tree to be merged
+     * @return The merged tree
+     */
+    @SuppressWarnings("unchecked")
+    public static <K> ObjectAvlTree<K> mergeTrees(ObjectAvlTree<K> tree1, ObjectAvlTree<K> tree2) {
+        
+        //an empty tree leaves the other unchanged
+        if(tree1.root == null) {
+            return tree2;
+        } else if(tree2.root == null) {
+            return tree1;
+        }
+        
+        //order trees so that tree1's values would come first if disjoint
+        if(tree1.compare(tree2.max(), tree1.min()) < 0) {
+            ObjectAvlTree<K> swap = tree1;
+            tree1 = tree2;
+            tree2 = swap;
+        }
+        
+        if(tree1.compare(tree1.max(), tree2.min()) < 0) {
+            
+            //concatenate sorted arrays and rebuild
+            Object[] mergeArray = new Object[tree1.size + tree2.size];
+            System.arraycopy(tree1.treeToArray(), 0, mergeArray, 0, tree1.size);
+            System.arraycopy(tree2.treeToArray(), 0, mergeArray, tree1.size, tree2.size);
+            
+            return new ObjectAvlTree<K>(mergeArray, mergeArray.length, tree1.comparator);
+            
+        }
+        
+        //otherwise insert smaller tree's elements into larger tree
+        ObjectAvlTree<K> smaller = tree1.size < tree2.size ? tree1 : tree2;
+        ObjectAvlTree<K> larger = smaller == tree1 ? tree2 : tree1;
+        
+        Object[] insertArray = smaller.treeToArray();
+        
+        for(int i = 0; i < insertArray.length; i++) {
+            larger.root = larger.insert(larger.root, (K) insertArray[i]);
+        }
+        
+        return larger;
+        
+    }
+    
+    /**
+     * A method for merging two trees of size m and n in O(m+n) time whether
+     * or not their ranges overlap, as AvlTree.mergeTreesLinear does. Neither
+     * input tree is modified. The merged tree takes tree1's comparator.
+     *
+     * @param tree1 The first tree to be merged
+     * @param tree2 The second tree to be merged
+     * @return The merged tree
+     */
+    @SuppressWarnings("unchecked")
+    public static <K> ObjectAvlTree<K> mergeTreesLinear(ObjectAvlTree<K> tree1, ObjectAvlTree<K> tree2) {
+        
+        Object[] array1 = tree1.treeToArray();
+        Object[] array2 = tree2.treeToArray();
+        Object[] mergeArray = new Object[array1.length + array2.length];
+        
+        int i = 0;
+        int j = 0;
+        int index = 0;
+        
+        //copy smaller current value, keeping one copy of equal values
+        while(i < array1.length && j < array2.length) {
+            
+            int comparison = tree1.compare((K) array1[i], (K) array2[j]);
+            
+            if(comparison < 0) {
+                mergeArray[index++] = array1[i++];
+            } else if(comparison > 0) {
+                mergeArray[index++] = array2[j++];
+            } else {
+                mergeArray[index++] = array1[i++];
+                j++;
+            }
+            
+        }
+        
+        //copy whatever remains of either array
+        while(i < array1.length) {
+            mergeArray[index++] = array1[i++];
+        }
+        
+        while(j < array2.length) {
+            mergeArray[index++] = array2[j++];
+        }
+        
+        return new ObjectAvlTree<K>(mergeArray, index, tree1.comparator);
+        
+    }
+
+
+}
@@ -0,0 +1,376 @@
+import java.util.NoSuchElementException;
+
+/**
+ * This class implements a persistent AVL tree of integers by path copying.
+ * Nodes are never changed once they are reachable from a root: an insert
+ * creates new copies of only the nodes on the path to the new key, and the
+ * new root shares every untouched subtree with the old one. A snapshot of
+ * the tree is therefore just another handle on the same root, taken in O(1)
+ * time, and it keeps seeing the same keys however the tree changes later.
+ * Readers of a snapshot need no locks.
+ *
+ * Merging is also non-destructive: it uses the split and join union
+ * algorithm, copying only the nodes along split and join paths, so neither
+ * input tree changes and the result shares structure with both.
+ *
+ * Created as part of an assignment for Foundations of Algorithms, a graduate-
+ * level course at Johns Hopkins University.
+ *
+ * @author Joseph Scheidt
+ * @version Programming Assignment 1
+ */
+public class PersistentAvlTree {
+    
+    //root node for the tree
+    AvlNode root;
+    
+    //number of tree nodes
+    int size;
+    
+    /**
+     * A constructor for the class. Initializes an empty tree.
+     */
+    public PersistentAvlTree() {
+        
+        this(null, 0);
+        
+    }
+    
+    /* A private constructor for a handle on an existing root.
+     */
+    private PersistentAvlTree(AvlNode root, int size) {
+        
+        this.root = root;
+        this.size = size;
+        
+    }
+    
+    /**
+     * A constructor for the class. Takes a sorted integer array and builds
+     * a complete AVL tree in O(n) time, as the AvlTree constructor does.
+     *
+     * @param data the integer array to transform into an AVL tree
+     */
+    public PersistentAvlTree(int[] data) {
+        
+        this(buildTree(data, 0, data.length - 1), data.length);
+        
+    }
+    
+    /* A helper function, called recursively, to build a subtree from the
+     * values of a sorted array between beg and end, taking the middle value
+     * as the root.
+     */
+    private static AvlNode buildTree(int[] data, int beg, int end) {
+        
+        if(beg > end) {
+            return null;
+        }
+        
+        int middle = beg + (end - beg) / 2;
+        
+        return newNode(buildTree(data, beg, middle - 1), data[middle],
+                       buildTree(data, middle + 1, end));
+        
+    }
+    
+    /**
+     * A method to return a snapshot of the tree in O(1) time. The snapshot
+     * shares all of its nodes with the tree, and is unaffected by later
+     * changes to either one.
+     *
+     * @return a snapshot of the tree
+     */
+    public PersistentAvlTree snapshot() {
+        
+        return new PersistentAvlTree(root, size);
+        
+    }
+    
+    /**
+     * A method to insert a key value into the tree. Snapshots taken before
+     * the insert do not see the new key.
+     *
+     * @param key The key value to insert
+     */
+    public void insert(int key) {
+        
+        AvlNode newRoot = insert(root, key);
+        
+        //an unchanged root means the key was already present
+        if(newRoot != root) {
+            root = newRoot;
+            size++;
+        }
+        
+    }
+    
+    /**
+     * A method to insert a key value below a node without changing any
+     * existing node. The nodes on the path to the new key are copied and
+     * rebalanced; all other subtrees are shared with the original.
+     *
+     * @param node The root of the subtree to insert into
+     * @param key The key value for the node
+     * @return the root of the new subtree, or node if the key was present
+     */
+    public static AvlNode insert(AvlNode node, int key) {
+        
+        if(node == null) {
+            return new AvlNode(key);
+        } else if(node.key > key) {
+            
+            AvlNode left = insert(node.left, key);
+            
+            if(left == node.left) {
+                return node;
+            }
+            
+            return balanced(left, node.key, node.right);
+            
+        } else if(node.key < key) {
+            
+            AvlNode right = insert(node.right, key);
+            
+            if(right == node.right) {
+                return node;
+            }
+            
+            return balanced(node.left, node.key, right);
+            
+        }
+        
+        return node;
+        
+    }
+    
+    /* A helper function to create a new node with the given children and
+     * calculate its height.
+     */
+    private static AvlNode newNode(AvlNode left, int key, AvlNode right) {
+        
+        AvlNode node = new AvlNode(key);
+        
+        node.left = left;
+        node.right = right;
+        node.height = Math.max(AvlTree.height(left), AvlTree.height(right)) + 1;
+        node.size = AvlTree.size(left) + AvlTree.size(right) + 1;
+        
+        return node;
+        
+    }
+    
+    /* A helper function to create a balanced subtree from a key and two
+     * subtrees differing in height by at most two. If they differ by two,
+     * the single or double rotation that AvlTree would make in place is made
+     * by creating new nodes, leaving the subtrees' own nodes untouched.
+     */
+    private static AvlNode balanced(AvlNode left, int key, AvlNode right) {
+        
+        int balance = AvlTree.height(right) - AvlTree.height(left);
+        
+        //right heavy: double rotation if right subtree leans left
+        if(balance > 1) {
+            
+            if(AvlTree.balance(right) < 0) {
+                AvlNode rightLeft = right.left;
+                return newNode(newNode(left, key, rightLeft.left), rightLeft.key,
+                               newNode(rightLeft.right, right.key, right.right));
+            }
+            
+            return newNode(newNode(left, key, right.left), right.key, right.right);
+        
+        //left heavy: double rotation if left subtree leans right
+        } else if(balance < -1) {
+            
+            if(AvlTree.balance(left) > 0) {
+                AvlNode leftRight = left.right;
+                return newNode(newNode(left.left, left.key, leftRight.left), leftRight.key,
+                               newNode(leftRight.right, key, right));
+            }
+            
+            return newNode(left.left, left.key, newNode(left.right, key, right));
+            
+        }
+        
+        return newNode(left, key, right);
+        
+    }
+    
+    /* A helper function, called recursively, to join two subtrees around a
+     * key larger than every key on the left and smaller than every key on
+     * the right, copying only the spine of the taller subtree.
+     */
+    private static AvlNode join(AvlNode left, int key, AvlNode right) {
+        
+        if(AvlTree.height(left) > AvlTree.height(right) + 1) {
+            return balanced(left.left, left.key, join(left.right, key, right));
+        } else if(AvlTree.height(right) > AvlTree.height(left) + 1) {
+            return balanced(join(left, key, right.left), right.key, right.right);
+        }
+        
+        return newNode(left, key, right);
+        
+    }
+    
+    /* A helper function, called recursively, to split a subtree around a
+     * key without changing it. The found node, if any, is the original.
+     */
+    private static AvlSplit split(AvlNode node, int key) {
+        
+        if(node == null) {
+            return new AvlSplit(null, null, null);
+        } else if(key < node.key) {
+            AvlSplit split = split(node.left, key);
+            split.right = join(split.right, node.key, node.right);
+            return split;
+        } else if(key > node.key) {
+            AvlSplit split = split(node.right, key);
+            split.left = join(node.left, node.key, split.left);
+            return split;
+        }
+        
+        return new AvlSplit(node.left, node, node.right);
+        
+    }
+    
+    /* A helper function, called recursively, to unite two subtrees without
+     * changing either.
+     */
+    private static AvlNode union(AvlNode node1, AvlNode node2) {
+        
+        if(node1 == null) {
+            return node2;
+        } else if(node2 == null) {
+            return node1;
+        }
+        
+        AvlSplit split = split(node2, node1.key);
+        
+        return join(union(node1.left, split.left), node1.key,
+                    union(node1.right, split.right));
+        
+    }
+    
+    /**
+     * A method for merging two persistent trees of size m and n without
+     * changing either, using the split and join union algorithm in
+     * O(m lg(n/m + 1)) time. The merged tree shares every subtree that did
+     * not need to be split or joined with the inputs.
+     *
+     * @param tree1 The first tree to be merged
+     * @param tree2 The second tree to be merged
+     * @return The merged tree
+     */
+    public static PersistentAvlTree merge(PersistentAvlTree tree1, PersistentAvlTree tree2) {
+        
+        AvlNode merged;
+        
+        //split by the taller tree's nodes, so the recursion is shallower
+        if(AvlTree.height(tree1.root) >= AvlTree.height(tree2.root)) {
+            merged = union(tree1.root, tree2.root);
+        } else {
+            merged = union(tree2.root, tree1.root);
+        }
+        
+        return new PersistentAvlTree(merged, AvlTree.size(merged));
+        
+    }
+    
+    /**
+     * A method to test whether a key value is in the tree.
+     *
+     * @param key The key value to look for
+     * @return true if the tree contains the key
+     */
+    public boolean contains(int key) {
+        
+        AvlNode node = root;
+        
+        while(node != null && node.key != key) {
+            node = key < node.key ? node.left : node.right;
+        }
+        
+        return node != null;
+        
+    }
+    
+    /**
+     * A simple function to return the maximum value of a tree.
+     *
+     * @return the maximum value of a tree
+     * @throws NoSuchElementException if the tree is empty
+     */
+    public int max() {
+        
+        //an empty tree has no key to return
+        if(root == null) {
+            throw new NoSuchElementException();
+        }
+        
+        AvlNode rightMost = root;
+        
+        while(rightMost.right != null) {
+            rightMost = rightMost.right;
+        }
+        
+        return rightMost.key;
+        
+    }
+    
+    /**
+     * A simple function to return the minimum value of a tree.
+     *
+     * @return the minimum value of a tree
+     * @throws NoSuchElementException if the tree is empty
+     */
+    public int min() {
+        
+        //an empty tree has no key to return
+        if(root == null) {
+            throw new NoSuchElementException();
+        }
+        
+        AvlNode leftMost = root;
+        
+        while(leftMost.left != null) {
+            leftMost = leftMost.left;
+        }
+        
+        return leftMost.key;
+        
+    }
+    
+    /**
+     * A method to turn the tree into a sorted array of integers in O(n) time.
+     *
+     * @return a sorted integer array
+     */
+    public int[] treeToArray() {
+        
+        int[] returnArray = new int[size];
+        
+        sortTree(root, returnArray, 0);
+        
+        return returnArray;
+        
+    }
+    
+    /* A helper function to recursively store the nodes of a subtree in the
+     * array from the given index, returning the index after the last value.
+     */
+    private static int sortTree(AvlNode node, int[] treeArray, int index) {
+        
+        if(node == null) {
+            return index;
+        }
+        
+        index = sortTree(node.left, treeArray, index);
+        treeArray[index] = node.key;
+        
+        return sortTree(node.right, treeArray, index + 1);
+        
+    }
+
+
+}
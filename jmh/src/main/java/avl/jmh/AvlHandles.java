@@ -0,0 +1,257 @@
+package avl.jmh;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * This class gives the benchmarks access to the AVL tree classes. JMH will
+ * not generate benchmarks in the default package, and a class in a named
+ * package cannot name a class in the default package, so the AvlTree
+ * constructors and methods are looked up once by name and held as method
+ * handles. The handles are static final, so the JIT treats them as
+ * constants and inlines the calls they make, and the benchmarks measure the
+ * tree code rather than the lookup.
+ *
+ * Trees are passed around as Object.
+ *
+ * Created as part of an assignment for Foundations of Algorithms, a graduate-
+ * level course at Johns Hopkins University.
+ *
+ * @author Joseph Scheidt
+ * @version Programming Assignment 1
+ */
+final class AvlHandles {
+    
+    private static final MethodHandle BUILD;
+    private static final MethodHandle SINGLE;
+    private static final MethodHandle TREE_TO_ARRAY;
+    private static final MethodHandle INSERT;
+    private static final MethodHandle MERGE_TREES;
+    private static final MethodHandle MERGE_TREES_LINEAR;
+    private static final MethodHandle MERGE_ADAPTIVE;
+    private static final MethodHandle PARALLEL_UNION;
+    
+    static {
+        
+        try {
+            
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> tree = Class.forName("AvlTree");
+            MethodType merge = MethodType.methodType(tree, tree, tree);
+            
+            //adapt every handle to take and return Object in place of AvlTree
+            BUILD = erase(lookup.findConstructor(tree, MethodType.methodType(void.class, int[].class)), tree);
+            SINGLE = erase(lookup.findConstructor(tree, MethodType.methodType(void.class, int.class)), tree);
+            TREE_TO_ARRAY = erase(lookup.findVirtual(tree, "treeToArray", MethodType.methodType(int[].class)), tree);
+            INSERT = erase(lookup.findVirtual(tree, "insert", MethodType.methodType(void.class, int.class)), tree);
+            MERGE_TREES = erase(lookup.findStatic(tree, "mergeTrees", merge), tree);
+            MERGE_TREES_LINEAR = erase(lookup.findStatic(tree, "mergeTreesLinear", merge), tree);
+            MERGE_ADAPTIVE = erase(lookup.findStatic(tree, "mergeAdaptive", merge), tree);
+            PARALLEL_UNION = erase(lookup.findStatic(tree, "parallelUnion", merge), tree);
+            
+        } catch(ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+        
+    }
+    
+    private AvlHandles() {
+    }
+    
+    /* A helper function to change AvlTree to Object in the type of a
+     * method handle, so it can be invoked exactly from this package.
+     */
+    private static MethodHandle erase(MethodHandle handle, Class<?> tree) {
+        
+        MethodType type = handle.type();
+        
+        if(type.returnType() == tree) {
+            type = type.changeReturnType(Object.class);
+        }
+        
+        for(int i = 0; i < type.parameterCount(); i++) {
+            if(type.parameterType(i) == tree) {
+                type = type.changeParameterType(i, Object.class);
+            }
+        }
+        
+        return handle.asType(type);
+        
+    }
+    
+    /* A helper function to rethrow whatever a method handle threw, wrapping
+     * checked exceptions, which no AvlTree method used here declares.
+     */
+    private static RuntimeException rethrow(Throwable t) {
+        
+        if(t instanceof RuntimeException) {
+            return (RuntimeException) t;
+        } else if(t instanceof Error) {
+            throw (Error) t;
+        }
+        
+        return new IllegalStateException(t);
+        
+    }
+    
+    /**
+     * A function to build a tree from a sorted array, as new AvlTree(data).
+     *
+     * @param data the sorted array to transform into an AVL tree
+     * @return the new tree
+     */
+    static Object build(int[] data) {
+        
+        try {
+            return (Object) BUILD.invokeExact(data);
+        } catch(Throwable t) {
+            throw rethrow(t);
+        }
+        
+    }
+    
+    /**
+     * A function to build a one node tree, as new AvlTree(key).
+     *
+     * @param key the key value for the root node
+     * @return the new tree
+     */
+    static Object single(int key) {
+        
+        try {
+            return (Object) SINGLE.invokeExact(key);
+        } catch(Throwable t) {
+            throw rethrow(t);
+        }
+        
+    }
+    
+    /**
+     * A function to sort a tree into an array, as tree.treeToArray().
+     *
+     * @param tree the tree to sort
+     * @return a sorted array
+     */
+    static int[] treeToArray(Object tree) {
+        
+        try {
+            return (int[]) TREE_TO_ARRAY.invokeExact(tree);
+        } catch(Throwable t) {
+            throw rethrow(t);
+        }
+        
+    }
+    
+    /**
+     * A function to insert a key value, as tree.insert(key).
+     *
+     * @param tree the tree to insert into
+     * @param key the key value to insert
+     */
+    static void insert(Object tree, int key) {
+        
+        try {
+            INSERT.invokeExact(tree, key);
+        } catch(Throwable t) {
+            throw rethrow(t);
+        }
+        
+    }
+    
+    /**
+     * A function to merge two trees with one of the AvlTree merge methods:
+     * mergeTrees, mergeTreesLinear, mergeAdaptive or parallelUnion.
+     *
+     * @param strategy the name of the merge method
+     * @param tree1 the first tree to be merged
+     * @param tree2 the second tree to be merged
+     * @return the merged tree
+     */
+    static Object merge(String strategy, Object tree1, Object tree2) {
+        
+        try {
+            
+            switch(strategy) {
+                case "mergeTrees":
+                    return (Object) MERGE_TREES.invokeExact(tree1, tree2);
+                case "mergeTreesLinear":
+                    return (Object) MERGE_TREES_LINEAR.invokeExact(tree1, tree2);
+                case "mergeAdaptive":
+                    return (Object) MERGE_ADAPTIVE.invokeExact(tree1, tree2);
+                case "parallelUnion":
+                    return (Object) PARALLEL_UNION.invokeExact(tree1, tree2);
+                default:
+                    throw new IllegalArgumentException("unknown merge strategy: " + strategy);
+            }
+            
+        } catch(Throwable t) {
+            throw rethrow(t);
+        }
+        
+    }
+    
+    /**
+     * A function to create the sorted keys of the two trees of one of the
+     * AvlTree.treeTest data set types:
+     *
+     * disjoint - {1 to k/2} and {k/2 to k} (no overlap)
+     * unbalanced - {1 to .2k, k} and {.2k to k} (unbalanced set sizes)
+     * interleaved - {1,3,5,...k-1} and {2,4,6,...k} (balanced interleaved sets)
+     *
+     * @param shape the data set type
+     * @param k the total size of both data sets
+     * @return the keys of the first and second trees
+     */
+    static int[][] mergeData(String shape, int k) {
+        
+        if(shape.equals("disjoint")) {
+            
+            return new int[][] {sequence(0, k/2, 1), sequence(k/2, k/2, 1)};
+            
+        } else if(shape.equals("unbalanced")) {
+            
+            //one overlapping key at the top of the smaller set
+            int[] leftData = new int[k*2/10 + 1];
+            System.arraycopy(sequence(0, k*2/10, 1), 0, leftData, 0, k*2/10);
+            leftData[k*2/10] = k;
+            return new int[][] {leftData, sequence(k*2/10, k*8/10 - 1, 1)};
+            
+        } else if(shape.equals("interleaved")) {
+            
+            int[] leftData = new int[k/2];
+            
+            for(int i = 0; i < k/2; i++) {
+                leftData[i] = 2*i + 1;
+            }
+            
+            return new int[][] {leftData, sequence(0, k/2, 2)};
+            
+        }
+        
+        throw new IllegalArgumentException("unknown data set type: " + shape);
+        
+    }
+    
+    /**
+     * A function to return the ascending integers from start to
+     * start + length - 1, each multiplied by step.
+     *
+     * @param start the first integer, before multiplying
+     * @param length the number of integers
+     * @param step the multiplier
+     * @return the array of integers
+     */
+    static int[] sequence(int start, int length, int step) {
+        
+        int[] data = new int[length];
+        
+        for(int i = 0; i < length; i++) {
+            data[i] = (start + i) * step;
+        }
+        
+        return data;
+        
+    }
+    
+}
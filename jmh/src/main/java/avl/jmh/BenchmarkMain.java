@@ -0,0 +1,41 @@
+package avl.jmh;
+
+import java.util.Arrays;
+
+/**
+ * This class runs the benchmarks through the JMH command line, adding the
+ * gc profiler unless a profiler is already chosen, so every run reports
+ * allocation per operation and collection counts and times alongside the
+ * timings. Any JMH option may be given, for example a benchmark name
+ * pattern, -p size=1000 or -prof stack.
+ *
+ * Created as part of an assignment for Foundations of Algorithms, a graduate-
+ * level course at Johns Hopkins University.
+ *
+ * @author Joseph Scheidt
+ * @version Programming Assignment 1
+ */
+public final class BenchmarkMain {
+    
+    private BenchmarkMain() {
+    }
+    
+    /**
+     * The application method.
+     *
+     * @param args JMH command-line options
+     * @throws Exception if JMH fails to run the benchmarks
+     */
+    public static void main(String[] args) throws Exception {
+        
+        if(!Arrays.asList(args).contains("-prof")) {
+            args = Arrays.copyOf(args, args.length + 2);
+            args[args.length - 2] = "-prof";
+            args[args.length - 1] = "gc";
+        }
+        
+        org.openjdk.jmh.Main.main(args);
+        
+    }
+    
+}
@@ -0,0 +1,102 @@
+package avl.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks merging two AVL trees built from the three data set
+ * types used by AvlTree.treeTest, for data sets of 1e5 to 1e7 keys in all:
+ *
+ * disjoint - {1 to k/2} and {k/2 to k} (no overlap)
+ * unbalanced - {1 to .2k, k} and {.2k to k} (unbalanced set sizes)
+ * interleaved - {1,3,5,...k-1} and {2,4,6,...k} (balanced interleaved sets)
+ *
+ * Each merge strategy of AvlTree is run on each data set, so strategies can
+ * be compared as well as checked for regressions. The merges reuse or change
+ * their inputs, so both trees are rebuilt before every call, outside the
+ * timed region. At these sizes a merge takes long enough that the timing
+ * around each call does not show in the result; SmallMergeBenchmark covers
+ * the 1e3 and 1e4 sizes, where it would.
+ *
+ * Created as part of an assignment for Foundations of Algorithms, a graduate-
+ * level course at Johns Hopkins University.
+ *
+ * @author Joseph Scheidt
+ * @version Programming Assignment 1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class MergeBenchmark {
+    
+    //total size of both data sets, SmallMergeBenchmark covers the smaller
+    @Param({"100000", "1000000", "10000000"})
+    public int size;
+    
+    //data set type
+    @Param({"disjoint", "unbalanced", "interleaved"})
+    public String shape;
+    
+    //AvlTree merge method
+    @Param({"mergeTrees", "mergeTreesLinear", "mergeAdaptive", "parallelUnion"})
+    public String strategy;
+    
+    //sorted keys of each tree
+    private int[] leftData;
+    private int[] rightData;
+    
+    //trees to merge, rebuilt before every call
+    private Object tree1;
+    private Object tree2;
+    
+    /**
+     * A method to create the two data sets, once per trial.
+     */
+    @Setup(Level.Trial)
+    public void setupData() {
+        
+        int[][] data = AvlHandles.mergeData(shape, size);
+        leftData = data[0];
+        rightData = data[1];
+        
+    }
+    
+    /**
+     * A method to rebuild both trees before every call.
+     */
+    @Setup(Level.Invocation)
+    public void setupTrees() {
+        
+        tree1 = AvlHandles.build(leftData);
+        tree2 = AvlHandles.build(rightData);
+        
+    }
+    
+    /**
+     * A benchmark of merging the two trees.
+     *
+     * @return the merged tree
+     */
+    @Benchmark
+    public Object merge() {
+        
+        return AvlHandles.merge(strategy, tree1, tree2);
+        
+    }
+    
+}
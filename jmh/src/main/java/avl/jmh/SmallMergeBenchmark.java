@@ -0,0 +1,106 @@
+package avl.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * This class benchmarks the same merges as MergeBenchmark for data sets of
+ * 1e3 and 1e4 keys in all. A merge of that size takes only microseconds, so
+ * rebuilding the trees and taking timestamps around every single merge
+ * would be a large part of the result. Instead a pool of POOL copies of
+ * both trees is built before every call, outside the timed region, and each
+ * call merges the whole pool. JMH divides the time of a call by POOL, so
+ * the result is still the time of one merge.
+ *
+ * Created as part of an assignment for Foundations of Algorithms, a graduate-
+ * level course at Johns Hopkins University.
+ *
+ * @author Joseph Scheidt
+ * @version Programming Assignment 1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class SmallMergeBenchmark {
+    
+    //number of merges in each call
+    private static final int POOL = 64;
+    
+    //total size of both data sets
+    @Param({"1000", "10000"})
+    public int size;
+    
+    //data set type
+    @Param({"disjoint", "unbalanced", "interleaved"})
+    public String shape;
+    
+    //AvlTree merge method
+    @Param({"mergeTrees", "mergeTreesLinear", "mergeAdaptive", "parallelUnion"})
+    public String strategy;
+    
+    //sorted keys of each tree
+    private int[] leftData;
+    private int[] rightData;
+    
+    //copies of the trees to merge, rebuilt before every call
+    private final Object[] trees1 = new Object[POOL];
+    private final Object[] trees2 = new Object[POOL];
+    
+    /**
+     * A method to create the two data sets, once per trial.
+     */
+    @Setup(Level.Trial)
+    public void setupData() {
+        
+        int[][] data = AvlHandles.mergeData(shape, size);
+        leftData = data[0];
+        rightData = data[1];
+        
+    }
+    
+    /**
+     * A method to rebuild every copy of both trees before every call.
+     */
+    @Setup(Level.Invocation)
+    public void setupTrees() {
+        
+        for(int i = 0; i < POOL; i++) {
+            trees1[i] = AvlHandles.build(leftData);
+            trees2[i] = AvlHandles.build(rightData);
+        }
+        
+    }
+    
+    /**
+     * A benchmark of merging each copy of the two trees.
+     *
+     * @param blackhole the sink for each merged tree
+     */
+    @Benchmark
+    @OperationsPerInvocation(POOL)
+    public void merge(Blackhole blackhole) {
+        
+        for(int i = 0; i < POOL; i++) {
+            blackhole.consume(AvlHandles.merge(strategy, trees1[i], trees2[i]));
+        }
+        
+    }
+    
+}
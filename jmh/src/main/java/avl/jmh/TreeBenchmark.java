@@ -0,0 +1,103 @@
+package avl.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks building an AVL tree from a sorted array, sorting a
+ * tree into an array, and inserting keys one at a time, for data sets of
+ * 1e3 to 1e7 ascending integers. Each benchmark returns its result, so JMH
+ * consumes it and the JIT cannot discard the work.
+ *
+ * Created as part of an assignment for Foundations of Algorithms, a graduate-
+ * level course at Johns Hopkins University.
+ *
+ * @author Joseph Scheidt
+ * @version Programming Assignment 1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class TreeBenchmark {
+    
+    //data set size
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+    
+    //sorted keys, and a tree built from them
+    private int[] data;
+    private Object tree;
+    
+    /**
+     * A method to create the data set and the tree to sort, once per trial.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        
+        data = AvlHandles.sequence(0, size, 1);
+        tree = AvlHandles.build(data);
+        
+    }
+    
+    /**
+     * A benchmark of building a tree from a sorted array.
+     *
+     * @return the new tree
+     */
+    @Benchmark
+    public Object build() {
+        
+        return AvlHandles.build(data);
+        
+    }
+    
+    /**
+     * A benchmark of sorting a tree into an array.
+     *
+     * @return the sorted array
+     */
+    @Benchmark
+    public int[] treeToArray() {
+        
+        return AvlHandles.treeToArray(tree);
+        
+    }
+    
+    /**
+     * A benchmark of inserting the data set's ascending keys one at a time,
+     * which rotates on every level. The one node tree the keys go into is
+     * built inside the call, since insert changes it; that is one node
+     * against at least a thousand inserts, and it keeps the benchmark free
+     * of per-call setup, whose timestamps would swamp the smaller sizes.
+     *
+     * @return the tree the keys were inserted into
+     */
+    @Benchmark
+    public Object insert() {
+        
+        Object tree = AvlHandles.single(data[0]);
+        
+        for(int i = 1; i < size; i++) {
+            AvlHandles.insert(tree, data[i]);
+        }
+        
+        return tree;
+        
+    }
+    
+}